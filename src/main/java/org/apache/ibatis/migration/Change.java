@@ -23,6 +23,7 @@ public class Change implements Comparable<Change> {
   private String description;
   private String appliedTimestamp;
   private String filename;
+  private String checksum;
 
   public Change() {
   }
@@ -40,6 +41,7 @@ public class Change implements Comparable<Change> {
   public Change(Change toCopy) {
     this(toCopy.getId(), toCopy.getAppliedTimestamp(), toCopy.getDescription());
     this.filename = toCopy.getFilename();
+    this.checksum = toCopy.getChecksum();
   }
 
   public BigDecimal getId() {
@@ -74,6 +76,14 @@ public class Change implements Comparable<Change> {
     this.filename = filename;
   }
 
+  public String getChecksum() {
+    return checksum;
+  }
+
+  public void setChecksum(String checksum) {
+    this.checksum = checksum;
+  }
+
   @Override
   public String toString() {
     return id + " " + (appliedTimestamp == null ? "   ...pending...   " : appliedTimestamp) + " " + description;
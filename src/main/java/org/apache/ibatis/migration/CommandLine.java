@@ -1,5 +1,5 @@
 /*
- *    Copyright 2010-2023 the original author or authors.
+ *    Copyright 2010-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.Date;
 
+import org.apache.ibatis.migration.commands.BaseCommand;
 import org.apache.ibatis.migration.commands.Command;
 import org.apache.ibatis.migration.commands.Commands;
 import org.apache.ibatis.migration.commands.InfoCommand;
@@ -81,6 +82,9 @@ public class CommandLine {
     long start = System.currentTimeMillis();
     boolean exceptionCaught = false;
 
+    if (command instanceof BaseCommand) {
+      ((BaseCommand) command).setPoolConnections(true);
+    }
     try {
       command.execute(selectedOptions.getParams());
     } catch (Throwable t) {
@@ -90,6 +94,9 @@ public class CommandLine {
       }
       throw new MigrationException(t);
     } finally {
+      if (command instanceof BaseCommand) {
+        ((BaseCommand) command).close();
+      }
       console.printf("------------------------------------------------------------------------%n");
 
       if (hasColor(selectedOptions)) {
@@ -152,6 +159,7 @@ public class CommandLine {
     console.printf("  version <version>  Migrates the database up or down to the specified version.%n");
     console.printf("  pending            Force executes pending migrations out of order (not recommended).%n");
     console.printf("  status             Prints the changelog from the database if the changelog table exists.%n");
+    console.printf("  validate           Checks applied migrations against the checksums stored in the changelog.%n");
     console
         .printf("  script <v1> <v2>   Generates a delta migration script from version v1 to v2 (undo if v1 > v2).%n");
     console.printf("%n");
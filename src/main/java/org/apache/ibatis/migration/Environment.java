@@ -39,8 +39,14 @@ public class Environment {
 
     SCRIPT_CHAR_SET,
 
+    MEMORY_MAP_THRESHOLD,
+
+    SCRIPT_INDEX,
+
     FULL_LINE_DELIMITER,
 
+    BACKSLASH_ESCAPES,
+
     SEND_FULL_SCRIPT,
 
     AUTO_COMMIT,
@@ -49,6 +55,26 @@ public class Environment {
 
     IGNORE_WARNINGS,
 
+    CHANGELOG_CHECKSUM,
+
+    CHANGELOG_PAGE_SIZE,
+
+    BATCH_SIZE,
+
+    SLOW_STATEMENT_THRESHOLD,
+
+    STATEMENT_TIMEOUT,
+
+    MIGRATION_TIMEOUT,
+
+    ECHO_INTERVAL,
+
+    PREFETCH_BUFFER_SIZE,
+
+    PARSE_AHEAD,
+
+    CHECKPOINT_TABLE,
+
     DRIVER_PATH,
 
     DRIVER,
@@ -59,6 +85,14 @@ public class Environment {
 
     PASSWORD,
 
+    POOL_MINIMUM_SIZE,
+
+    POOL_MAXIMUM_SIZE,
+
+    POOL_VALIDATION_TIMEOUT,
+
+    POOL_IDLE_TIMEOUT,
+
     HOOK_BEFORE_UP,
 
     HOOK_BEFORE_EACH_UP,
@@ -107,16 +141,33 @@ public class Environment {
   private final String timeZone;
   private final String delimiter;
   private final String scriptCharset;
+  private final long memoryMapThreshold;
+  private final boolean scriptIndex;
   private final boolean fullLineDelimiter;
+  private final boolean backslashEscapes;
   private final boolean sendFullScript;
   private final boolean autoCommit;
   private final boolean removeCrs;
   private final boolean ignoreWarnings;
+  private final boolean changelogChecksum;
+  private final int changelogPageSize;
+  private final int batchSize;
+  private final long slowStatementThreshold;
+  private final int statementTimeout;
+  private final int migrationTimeout;
+  private final int echoInterval;
+  private final int prefetchBufferSize;
+  private final int parseAhead;
+  private final String checkpointTable;
   private final String driverPath;
   private final String driver;
   private final String url;
   private final String username;
   private final String password;
+  private final int poolMinimumSize;
+  private final int poolMaximumSize;
+  private final int poolValidationTimeout;
+  private final long poolIdleTimeout;
 
   private final String hookBeforeUp;
   private final String hookBeforeEachUp;
@@ -143,7 +194,7 @@ public class Environment {
   private final Properties sysProps = System.getProperties();
   private final Properties variables = new Properties();
 
-  private final VariableReplacer parser = new VariableReplacer(Arrays.asList(sysProps, envVars));
+  private final VariableReplacer parser = VariableReplacer.compile(Arrays.asList(sysProps, envVars));
 
   public Environment(File file) {
     Properties prop = mergeProperties(file);
@@ -152,17 +203,40 @@ public class Environment {
     this.delimiter = readProperty(prop, SETTING_KEY.DELIMITER.toString(), ";");
     this.scriptCharset = readProperty(prop, SETTING_KEY.SCRIPT_CHAR_SET.toString(),
         Charset.defaultCharset().toString());
+    this.memoryMapThreshold = Long.parseLong(readProperty(prop, SETTING_KEY.MEMORY_MAP_THRESHOLD.toString(),
+        String.valueOf(FileMigrationLoader.DEFAULT_MEMORY_MAP_THRESHOLD)));
+    this.scriptIndex = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.SCRIPT_INDEX.toString()));
     this.fullLineDelimiter = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.FULL_LINE_DELIMITER.toString()));
+    this.backslashEscapes = Boolean
+        .parseBoolean(readProperty(prop, SETTING_KEY.BACKSLASH_ESCAPES.toString(), "false"));
     this.sendFullScript = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.SEND_FULL_SCRIPT.toString()));
     this.autoCommit = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.AUTO_COMMIT.toString()));
     this.removeCrs = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.REMOVE_CRS.toString()));
     this.ignoreWarnings = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.IGNORE_WARNINGS.toString(), "true"));
+    this.changelogChecksum = Boolean.parseBoolean(readProperty(prop, SETTING_KEY.CHANGELOG_CHECKSUM.toString()));
+    this.changelogPageSize = Integer.parseInt(readProperty(prop, SETTING_KEY.CHANGELOG_PAGE_SIZE.toString(), "0"));
+    this.batchSize = Integer.parseInt(readProperty(prop, SETTING_KEY.BATCH_SIZE.toString(), "0"));
+    this.slowStatementThreshold = Long
+        .parseLong(readProperty(prop, SETTING_KEY.SLOW_STATEMENT_THRESHOLD.toString(), "0"));
+    this.statementTimeout = Integer.parseInt(readProperty(prop, SETTING_KEY.STATEMENT_TIMEOUT.toString(), "0"));
+    this.migrationTimeout = Integer.parseInt(readProperty(prop, SETTING_KEY.MIGRATION_TIMEOUT.toString(), "0"));
+    this.echoInterval = Integer.parseInt(readProperty(prop, SETTING_KEY.ECHO_INTERVAL.toString(), "1"));
+    this.prefetchBufferSize = Integer
+        .parseInt(readProperty(prop, SETTING_KEY.PREFETCH_BUFFER_SIZE.toString(), "0"));
+    this.parseAhead = Integer.parseInt(readProperty(prop, SETTING_KEY.PARSE_AHEAD.toString(), "0"));
+    String checkpointTable = readProperty(prop, SETTING_KEY.CHECKPOINT_TABLE.toString());
+    this.checkpointTable = checkpointTable == null || checkpointTable.isBlank() ? null : checkpointTable.trim();
 
     this.driverPath = readProperty(prop, SETTING_KEY.DRIVER_PATH.toString());
     this.driver = readProperty(prop, SETTING_KEY.DRIVER.toString());
     this.url = readProperty(prop, SETTING_KEY.URL.toString());
     this.username = readProperty(prop, SETTING_KEY.USERNAME.toString());
     this.password = readProperty(prop, SETTING_KEY.PASSWORD.toString());
+    this.poolMinimumSize = Integer.parseInt(readProperty(prop, SETTING_KEY.POOL_MINIMUM_SIZE.toString(), "0"));
+    this.poolMaximumSize = Integer.parseInt(readProperty(prop, SETTING_KEY.POOL_MAXIMUM_SIZE.toString(), "4"));
+    this.poolValidationTimeout = Integer
+        .parseInt(readProperty(prop, SETTING_KEY.POOL_VALIDATION_TIMEOUT.toString(), "5"));
+    this.poolIdleTimeout = Long.parseLong(readProperty(prop, SETTING_KEY.POOL_IDLE_TIMEOUT.toString(), "60000"));
 
     this.hookBeforeUp = readProperty(prop, SETTING_KEY.HOOK_BEFORE_UP.toString());
     this.hookBeforeEachUp = readProperty(prop, SETTING_KEY.HOOK_BEFORE_EACH_UP.toString());
@@ -239,10 +313,22 @@ public class Environment {
     return scriptCharset;
   }
 
+  public long getMemoryMapThreshold() {
+    return memoryMapThreshold;
+  }
+
+  public boolean isScriptIndex() {
+    return scriptIndex;
+  }
+
   public boolean isFullLineDelimiter() {
     return fullLineDelimiter;
   }
 
+  public boolean isBackslashEscapes() {
+    return backslashEscapes;
+  }
+
   public boolean isSendFullScript() {
     return sendFullScript;
   }
@@ -259,6 +345,46 @@ public class Environment {
     return ignoreWarnings;
   }
 
+  public boolean isChangelogChecksum() {
+    return changelogChecksum;
+  }
+
+  public int getChangelogPageSize() {
+    return changelogPageSize;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public long getSlowStatementThreshold() {
+    return slowStatementThreshold;
+  }
+
+  public int getStatementTimeout() {
+    return statementTimeout;
+  }
+
+  public int getMigrationTimeout() {
+    return migrationTimeout;
+  }
+
+  public int getEchoInterval() {
+    return echoInterval;
+  }
+
+  public int getPrefetchBufferSize() {
+    return prefetchBufferSize;
+  }
+
+  public int getParseAhead() {
+    return parseAhead;
+  }
+
+  public String getCheckpointTable() {
+    return checkpointTable;
+  }
+
   public String getDriverPath() {
     return driverPath;
   }
@@ -279,6 +405,22 @@ public class Environment {
     return password;
   }
 
+  public int getPoolMinimumSize() {
+    return poolMinimumSize;
+  }
+
+  public int getPoolMaximumSize() {
+    return poolMaximumSize;
+  }
+
+  public int getPoolValidationTimeout() {
+    return poolValidationTimeout;
+  }
+
+  public long getPoolIdleTimeout() {
+    return poolIdleTimeout;
+  }
+
   public String getHookBeforeUp() {
     return hookBeforeUp;
   }
@@ -16,48 +16,206 @@
 package org.apache.ibatis.migration;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import org.apache.ibatis.migration.utils.Util;
 
+/**
+ * Loads migration scripts from a directory. Besides plain <code>.sql</code> files, scripts can be gzip-compressed
+ * (<code>001_create_table.sql.gz</code>) or stored in zip bundles (<code>history.zip</code>) whose <code>.sql</code>
+ * entries are read as if they were in the directory. Compressed scripts are decompressed while they are read.
+ */
 public class FileMigrationLoader implements MigrationLoader {
+  public static final long DEFAULT_MEMORY_MAP_THRESHOLD = 16L * 1024 * 1024;
+
+  private static final String SQL_SUFFIX = ".sql";
+
+  private static final String GZIP_SUFFIX = ".gz";
+
+  private static final String BUNDLE_SUFFIX = ".zip";
+
+  // Separates the bundle from the entry in the filename of a bundled change.
+  private static final String BUNDLE_SEPARATOR = "!/";
+
   protected final File scriptsDir;
 
   protected final String charset;
 
   protected final Properties variables;
 
+  protected long memoryMapThreshold = DEFAULT_MEMORY_MAP_THRESHOLD;
+
+  protected boolean useIndex;
+
+  private final VariableReplacer replacer;
+
   public FileMigrationLoader(File scriptsDir, String charset, Properties variables) {
     this.scriptsDir = scriptsDir;
     this.charset = charset;
     this.variables = variables;
+    this.replacer = VariableReplacer.compile(variables);
+  }
+
+  /**
+   * Scripts of at least this many bytes are memory-mapped instead of being read through a buffer.
+   *
+   * @param memoryMapThreshold
+   *          the size in bytes; <code>0</code> or less to never map scripts
+   */
+  public void setMemoryMapThreshold(long memoryMapThreshold) {
+    this.memoryMapThreshold = memoryMapThreshold;
+  }
+
+  /**
+   * Keeps an index of the scripts directory in <code>&lt;scripts directory name&gt;.index</code> next to it, so the
+   * directory is only listed when its modification time changes and unchanged scripts are not parsed again.
+   *
+   * @param useIndex
+   *          whether to use the index
+   */
+  public void setUseIndex(boolean useIndex) {
+    this.useIndex = useIndex;
   }
 
   @Override
   public List<Change> getMigrations() {
     List<Change> migrations = new ArrayList<>();
     if (scriptsDir.isDirectory()) {
-      String[] filenames = scriptsDir.list();
-      if (filenames == null) {
-        throw new MigrationException(scriptsDir + " does not exist.");
+      if (useIndex) {
+        Path indexFile = indexFile();
+        if (indexFile != null) {
+          try {
+            return getIndexedMigrations(indexFile);
+          } catch (NoSuchFileException e) {
+            // A script was removed while the directory was being read; list it again below.
+          } catch (IOException e) {
+            throw new MigrationException("Error indexing " + scriptsDir + ".  Cause: " + e, e);
+          }
+        }
       }
-      Arrays.sort(filenames);
+      String[] filenames = listFiles();
+      boolean bundled = false;
       for (String filename : filenames) {
-        if (filename.endsWith(".sql") && !isSpecialFile(filename)) {
+        String scriptName = stripGzipSuffix(filename);
+        if (scriptName.endsWith(SQL_SUFFIX) && !isSpecialFile(scriptName)) {
           Change change = parseChangeFromFilename(filename);
           migrations.add(change);
+        } else if (filename.endsWith(BUNDLE_SUFFIX)) {
+          addBundledMigrations(filename, migrations);
+          bundled = true;
         }
       }
+      if (bundled) {
+        migrations.sort(null);
+      }
     }
     return migrations;
   }
 
+  private String[] listFiles() {
+    String[] filenames = scriptsDir.list();
+    if (filenames == null) {
+      throw new MigrationException(scriptsDir + " does not exist.");
+    }
+    Arrays.sort(filenames);
+    return filenames;
+  }
+
+  private Path indexFile() {
+    File parent = scriptsDir.getAbsoluteFile().getParentFile();
+    return parent == null ? null : new File(parent, scriptsDir.getName() + ".index").toPath();
+  }
+
+  private List<Change> getIndexedMigrations(Path indexFile) throws IOException {
+    MigrationIndex previous = MigrationIndex.read(indexFile);
+    long directoryModified = scriptsDir.lastModified();
+    boolean listed = previous == null || !previous.isCurrent(directoryModified);
+    Collection<String> filenames = listed ? Arrays.asList(listFiles()) : previous.getFilenames();
+    MigrationIndex index = new MigrationIndex(directoryModified, System.currentTimeMillis());
+    boolean changed = listed;
+    List<Change> migrations = new ArrayList<>();
+    boolean bundled = false;
+    for (String filename : filenames) {
+      String scriptName = stripGzipSuffix(filename);
+      boolean bundle = filename.endsWith(BUNDLE_SUFFIX);
+      if (!bundle && (!scriptName.endsWith(SQL_SUFFIX) || isSpecialFile(scriptName))) {
+        continue;
+      }
+      Path file = Util.file(scriptsDir, filename).toPath();
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      long size = attributes.size();
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      MigrationIndex.Entry entry = previous == null ? null : previous.get(filename, size, lastModified);
+      if (entry == null) {
+        entry = bundle ? MigrationIndex.bundle(filename, size, lastModified, Checksums.sha256(file))
+            : MigrationIndex.script(parseChangeFromFilename(filename), size, lastModified, checksum(filename));
+        changed = true;
+      }
+      index.add(entry);
+      if (bundle) {
+        addBundledMigrations(filename, migrations);
+        bundled = true;
+      } else {
+        // Parsed again rather than read from the index, so that subclasses can override the parsing.
+        Change change = parseChangeFromFilename(filename);
+        change.setChecksum(entry.getHash());
+        migrations.add(change);
+      }
+    }
+    if (bundled) {
+      migrations.sort(null);
+    }
+    if (changed) {
+      try {
+        index.write(indexFile);
+      } catch (IOException e) {
+        // The index is only a cache; the scripts are listed again next time.
+      }
+    }
+    return migrations;
+  }
+
+  private void addBundledMigrations(String bundleName, List<Change> migrations) {
+    try (ZipFile bundle = new ZipFile(Util.file(scriptsDir, bundleName))) {
+      Enumeration<? extends ZipEntry> entries = bundle.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry entry = entries.nextElement();
+        String entryName = entry.getName();
+        String scriptName = entryName.substring(entryName.lastIndexOf('/') + 1);
+        if (!entry.isDirectory() && scriptName.endsWith(SQL_SUFFIX) && !isSpecialFile(scriptName)) {
+          Change change = parseChangeFromFilename(scriptName);
+          change.setFilename(bundleName + BUNDLE_SEPARATOR + entryName);
+          migrations.add(change);
+        }
+      }
+    } catch (IOException e) {
+      throw new MigrationException("Error reading bundle " + bundleName + ".  Cause: " + e, e);
+    }
+  }
+
+  private static String stripGzipSuffix(String filename) {
+    return filename.endsWith(GZIP_SUFFIX) ? filename.substring(0, filename.length() - GZIP_SUFFIX.length()) : filename;
+  }
+
   protected boolean isSpecialFile(String filename) {
     return "bootstrap.sql".equals(filename) || "onabort.sql".equals(filename);
   }
@@ -65,8 +223,9 @@ public class FileMigrationLoader implements MigrationLoader {
   protected Change parseChangeFromFilename(String filename) {
     try {
       Change change = new Change();
-      int lastIndexOfDot = filename.lastIndexOf('.');
-      String[] parts = filename.substring(0, lastIndexOfDot).split("_");
+      String scriptName = stripGzipSuffix(filename);
+      int lastIndexOfDot = scriptName.lastIndexOf('.');
+      String[] parts = scriptName.substring(0, lastIndexOfDot).split("_");
       change.setId(new BigDecimal(parts[0]));
       StringBuilder builder = new StringBuilder();
       for (int i = 1; i < parts.length; i++) {
@@ -86,12 +245,63 @@ public class FileMigrationLoader implements MigrationLoader {
   @Override
   public Reader getScriptReader(Change change, boolean undo) {
     try {
-      return new MigrationReader(Util.file(scriptsDir, change.getFilename()), charset, undo, variables);
+      String filename = change.getFilename();
+      int separator = filename.indexOf(BUNDLE_SEPARATOR);
+      if (separator > -1) {
+        InputStream entry = openBundleEntry(filename.substring(0, separator),
+            filename.substring(separator + BUNDLE_SEPARATOR.length()));
+        return new MigrationReader(new InputStreamReader(entry, charset()), undo, replacer);
+      }
+      if (filename.endsWith(GZIP_SUFFIX)) {
+        return new MigrationReader(new InputStreamReader(openGzip(Util.file(scriptsDir, filename)), charset()), undo,
+            replacer);
+      }
+      Path path = Util.file(scriptsDir, filename).toPath();
+      long start = 0;
+      long end = Long.MAX_VALUE;
+      if (UndoMarkerIndex.supports(charset)) {
+        // Undo reads start at the marker line; forward reads end there once the offset is known.
+        if (undo) {
+          start = UndoMarkerIndex.undoOffset(path);
+        } else {
+          long offset = UndoMarkerIndex.cachedUndoOffset(path);
+          if (offset > -1) {
+            end = offset;
+          }
+        }
+      }
+      return new MigrationReader(scriptChannelReader(path, start, end), undo, replacer);
     } catch (IOException e) {
       throw new MigrationException("Error reading " + change.getFilename(), e);
     }
   }
 
+  @Override
+  public String getChecksum(Change change) {
+    try {
+      return checksum(change.getFilename());
+    } catch (IOException e) {
+      throw new MigrationException("Error reading " + change.getFilename(), e);
+    }
+  }
+
+  private String checksum(String filename) throws IOException {
+    int separator = filename.indexOf(BUNDLE_SEPARATOR);
+    if (separator > -1) {
+      try (InputStream entry = openBundleEntry(filename.substring(0, separator),
+          filename.substring(separator + BUNDLE_SEPARATOR.length()))) {
+        return Checksums.sha256(entry);
+      }
+    }
+    if (filename.endsWith(GZIP_SUFFIX)) {
+      // The checksum covers the script, not how it is compressed.
+      try (InputStream in = openGzip(Util.file(scriptsDir, filename))) {
+        return Checksums.sha256(in);
+      }
+    }
+    return Checksums.sha256(Util.file(scriptsDir, filename).toPath());
+  }
+
   @Override
   public Reader getBootstrapReader() {
     String fileName = "bootstrap.sql";
@@ -108,11 +318,57 @@ public class FileMigrationLoader implements MigrationLoader {
     try {
       File scriptFile = Util.file(scriptsDir, fileName);
       if (scriptFile.exists()) {
-        return new MigrationReader(scriptFile, charset, false, variables);
+        return new MigrationReader(scriptChannelReader(scriptFile.toPath(), 0, Long.MAX_VALUE), false, replacer);
+      }
+      File gzipFile = Util.file(scriptsDir, fileName + GZIP_SUFFIX);
+      if (gzipFile.exists()) {
+        return new MigrationReader(new InputStreamReader(openGzip(gzipFile), charset()), false, replacer);
       }
       return null;
     } catch (IOException e) {
       throw new MigrationException("Error reading " + fileName, e);
     }
   }
+
+  private Reader scriptChannelReader(Path path, long start, long end) throws IOException {
+    return new ScriptChannelReader(path, start, end, charset(), memoryMapThreshold);
+  }
+
+  private Charset charset() {
+    return charset == null || charset.length() == 0 ? Charset.defaultCharset() : Charset.forName(charset);
+  }
+
+  private static InputStream openGzip(File file) throws IOException {
+    InputStream in = Files.newInputStream(file.toPath());
+    try {
+      return new GZIPInputStream(in, 64 * 1024);
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+  }
+
+  private InputStream openBundleEntry(String bundleName, String entryName) throws IOException {
+    ZipFile bundle = new ZipFile(Util.file(scriptsDir, bundleName));
+    try {
+      ZipEntry entry = bundle.getEntry(entryName);
+      if (entry == null) {
+        throw new IOException(entryName + " was not found in " + bundleName);
+      }
+      // Closing the entry stream closes the bundle too.
+      return new FilterInputStream(bundle.getInputStream(entry)) {
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            bundle.close();
+          }
+        }
+      };
+    } catch (IOException e) {
+      bundle.close();
+      throw e;
+    }
+  }
 }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2010-2023 the original author or authors.
+ *    Copyright 2010-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,21 +15,43 @@
  */
 package org.apache.ibatis.migration;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.migration.io.ResolverUtil;
+import org.apache.ibatis.migration.io.VFS;
 
 public class JavaMigrationLoader implements MigrationLoader {
 
+  /**
+   * Classpath resource listing script classes, one binary name per line. It is generated at compile time by
+   * {@link org.apache.ibatis.migration.processor.MigrationIndexProcessor}.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/mybatis-migrations/java-scripts.idx";
+
   private String[] packageNames;
 
   private ClassLoader classLoader;
 
+  private volatile ClassIndex classIndex;
+
+  private final Map<String, MigrationScript> scripts = new ConcurrentHashMap<>();
+
   public JavaMigrationLoader(String... packageNames) {
     this(null, packageNames);
   }
@@ -42,19 +64,8 @@ public class JavaMigrationLoader implements MigrationLoader {
   @Override
   public List<Change> getMigrations() {
     List<Change> migrations = new ArrayList<>();
-    ResolverUtil<MigrationScript> resolver = getResolver();
-    resolver.findImplementations(MigrationScript.class, packageNames);
-    Set<Class<? extends MigrationScript>> classes = resolver.getClasses();
-    for (Class<? extends MigrationScript> clazz : classes) {
-      try {
-        if (!Modifier.isAbstract(clazz.getModifiers())) {
-          MigrationScript script = clazz.getDeclaredConstructor().newInstance();
-          Change change = parseChangeFromMigrationScript(script);
-          migrations.add(change);
-        }
-      } catch (Exception e) {
-        throw new MigrationException("Could not instanciate MigrationScript: " + clazz.getName(), e);
-      }
+    for (Class<? extends MigrationScript> clazz : classIndex().migrations.values()) {
+      migrations.add(parseChangeFromMigrationScript(getScript(clazz)));
     }
     return migrations;
   }
@@ -69,24 +80,12 @@ public class JavaMigrationLoader implements MigrationLoader {
 
   @Override
   public Reader getScriptReader(Change change, boolean undo) {
-    ResolverUtil<MigrationScript> resolver = getResolver();
-    final String className = change.getFilename();
-    for (String pkg : packageNames) {
-      resolver.find(
-          type -> type != null && MigrationScript.class.isAssignableFrom(type) && type.getName().equals(className),
-          pkg);
-    }
-    Set<Class<? extends MigrationScript>> classes = resolver.getClasses();
-    // There should be only one script.
-    for (Class<? extends MigrationScript> clazz : classes) {
-      try {
-        MigrationScript script = clazz.getDeclaredConstructor().newInstance();
-        return new StringReader(undo ? script.getDownScript() : script.getUpScript());
-      } catch (Exception e) {
-        throw new MigrationException("Could not instanciate MigrationScript: " + clazz.getName(), e);
-      }
+    Class<? extends MigrationScript> clazz = classIndex().migrations.get(change.getFilename());
+    if (clazz == null) {
+      return null;
     }
-    return null;
+    MigrationScript script = getScript(clazz);
+    return new StringReader(undo ? script.getDownScript() : script.getUpScript());
   }
 
   @Override
@@ -100,16 +99,19 @@ public class JavaMigrationLoader implements MigrationLoader {
   }
 
   public <T extends SimpleScript> Reader getSoleScriptReader(Class<T> scriptClass) {
-    ResolverUtil<T> resolver = getResolver();
-    resolver.findImplementations(scriptClass, packageNames);
-    Set<Class<? extends T>> classes = resolver.getClasses();
-    if (classes == null || classes.isEmpty()) {
+    List<Class<? extends T>> classes = new ArrayList<>();
+    for (Class<? extends SimpleScript> clazz : classIndex().simpleScripts) {
+      if (scriptClass.isAssignableFrom(clazz)) {
+        classes.add(clazz.asSubclass(scriptClass));
+      }
+    }
+    if (classes.isEmpty()) {
       return null;
     }
     if (classes.size() > 1) {
       throw new MigrationException("There can be only one implementation of " + scriptClass.getName());
     }
-    Class<? extends T> clazz = classes.iterator().next();
+    Class<? extends T> clazz = classes.get(0);
     try {
       T script = clazz.getDeclaredConstructor().newInstance();
       return new StringReader(script.getScript());
@@ -118,6 +120,113 @@ public class JavaMigrationLoader implements MigrationLoader {
     }
   }
 
+  private MigrationScript getScript(Class<? extends MigrationScript> clazz) {
+    return scripts.computeIfAbsent(clazz.getName(), name -> {
+      try {
+        return clazz.getDeclaredConstructor().newInstance();
+      } catch (Exception e) {
+        throw new MigrationException("Could not instanciate MigrationScript: " + name, e);
+      }
+    });
+  }
+
+  /**
+   * Finds migration, bootstrap and onabort scripts once. Classes listed in the compile-time index are used as they are;
+   * the packages are only scanned if a classpath root that contains them has no index.
+   */
+  private ClassIndex classIndex() {
+    ClassIndex index = classIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = classIndex;
+        if (index == null) {
+          index = new ClassIndex(scan());
+          classIndex = index;
+        }
+      }
+    }
+    return index;
+  }
+
+  private Iterable<Class<?>> scan() {
+    ClassLoader loader = getResolver().getClassLoader();
+    Set<String> indexedRoots = new HashSet<>();
+    Set<Class<?>> classes = readIndex(loader, indexedRoots);
+    if (!indexedRoots.isEmpty() && !hasUnindexedRoot(indexedRoots)) {
+      return classes;
+    }
+    ResolverUtil<Object> resolver = getResolver();
+    ResolverUtil.Test test = new ResolverUtil.IsA(MigrationScript.class, SimpleScript.class);
+    for (String pkg : packageNames) {
+      resolver.find(test, pkg);
+    }
+    classes.addAll(resolver.getClasses());
+    return classes;
+  }
+
+  private Set<Class<?>> readIndex(ClassLoader loader, Set<String> indexedRoots) {
+    Set<Class<?>> classes = new LinkedHashSet<>();
+    try {
+      Enumeration<URL> urls = loader.getResources(INDEX_RESOURCE);
+      while (urls.hasMoreElements()) {
+        URL url = urls.nextElement();
+        String location = url.toExternalForm();
+        indexedRoots.add(location.substring(0, location.length() - INDEX_RESOURCE.length()));
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+          for (String line; (line = reader.readLine()) != null;) {
+            String className = line.trim();
+            if (isInPackages(className)) {
+              try {
+                classes.add(loader.loadClass(className));
+              } catch (ClassNotFoundException | LinkageError e) {
+                // Stale entry, ignored like classes that cannot be loaded while scanning.
+              }
+            }
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new MigrationException("Error reading " + INDEX_RESOURCE + ".  Cause: " + e, e);
+    }
+    return classes;
+  }
+
+  /**
+   * Checks whether a classpath root (a directory or a jar) that the scan would list for one of the packages has no
+   * index, for example because it was compiled without the annotation processor. The roots are found the way
+   * {@link VFS} finds them, so the index is only used alone if scanning could not find any other class.
+   */
+  private boolean hasUnindexedRoot(Set<String> indexedRoots) {
+    try {
+      for (String pkg : packageNames) {
+        String path = pkg.replace('.', '/');
+        for (URL url : VFS.getInstance().getRoots(path)) {
+          String location = url.toExternalForm();
+          if (location.endsWith("/")) {
+            location = location.substring(0, location.length() - 1);
+          }
+          if (!location.endsWith(path)
+              || !indexedRoots.contains(location.substring(0, location.length() - path.length()))) {
+            return true;
+          }
+        }
+      }
+      return false;
+    } catch (IOException e) {
+      return true;
+    }
+  }
+
+  private boolean isInPackages(String className) {
+    for (String pkg : packageNames) {
+      if (className.startsWith(pkg + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private <T> ResolverUtil<T> getResolver() {
     ResolverUtil<T> resolver = new ResolverUtil<>();
     if (classLoader != null) {
@@ -125,4 +234,24 @@ public class JavaMigrationLoader implements MigrationLoader {
     }
     return resolver;
   }
+
+  private static final class ClassIndex {
+    private final Map<String, Class<? extends MigrationScript>> migrations;
+    private final List<Class<? extends SimpleScript>> simpleScripts;
+
+    ClassIndex(Iterable<Class<?>> classes) {
+      Map<String, Class<? extends MigrationScript>> migrations = new HashMap<>();
+      List<Class<? extends SimpleScript>> simpleScripts = new ArrayList<>();
+      for (Class<?> clazz : classes) {
+        if (MigrationScript.class.isAssignableFrom(clazz) && !Modifier.isAbstract(clazz.getModifiers())) {
+          migrations.put(clazz.getName(), clazz.asSubclass(MigrationScript.class));
+        }
+        if (SimpleScript.class.isAssignableFrom(clazz)) {
+          simpleScripts.add(clazz.asSubclass(SimpleScript.class));
+        }
+      }
+      this.migrations = Map.copyOf(migrations);
+      this.simpleScripts = List.copyOf(simpleScripts);
+    }
+  }
 }
@@ -0,0 +1,181 @@
+/*
+ *    Copyright 2010-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An index of the scripts directory stored in a text file next to it. It records the modification time of the
+ * directory and, for every script and bundle, its size, modification time and SHA-256 checksum along with the id
+ * and description parsed from the filename.
+ * <p>
+ * Timestamps within {@link #RACY_MILLIS} of the time the index was built are not trusted, because a change made in the
+ * same clock tick would not show up in a coarse-grained modification time.
+ */
+final class MigrationIndex {
+
+  private static final String HEADER = "#migrations-index 1";
+
+  private static final long RACY_MILLIS = 2000;
+
+  private static final char SCRIPT = 'S';
+
+  private static final char BUNDLE = 'B';
+
+  static final class Entry {
+    private final String filename;
+    private final long size;
+    private final long lastModified;
+    private final String hash;
+    // Null for bundles.
+    private final String id;
+    private final String description;
+
+    Entry(String filename, long size, long lastModified, String hash, String id, String description) {
+      this.filename = filename;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.hash = hash;
+      this.id = id;
+      this.description = description;
+    }
+
+    String getFilename() {
+      return filename;
+    }
+
+    String getHash() {
+      return hash;
+    }
+
+    boolean isBundle() {
+      return id == null;
+    }
+  }
+
+  private final long directoryModified;
+  private final long builtAt;
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+  MigrationIndex(long directoryModified, long builtAt) {
+    this.directoryModified = directoryModified;
+    this.builtAt = builtAt;
+  }
+
+  /**
+   * @return <code>true</code> if no file can have been added to or removed from the directory since the index was
+   *         built.
+   */
+  boolean isCurrent(long directoryModified) {
+    return this.directoryModified == directoryModified && directoryModified < builtAt - RACY_MILLIS;
+  }
+
+  /**
+   * @return The entry if the file has not changed since it was indexed; <code>null</code> otherwise.
+   */
+  Entry get(String filename, long size, long lastModified) {
+    Entry entry = entries.get(filename);
+    if (entry == null || entry.size != size || entry.lastModified != lastModified
+        || lastModified >= builtAt - RACY_MILLIS) {
+      return null;
+    }
+    return entry;
+  }
+
+  Collection<String> getFilenames() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  void add(Entry entry) {
+    entries.put(entry.filename, entry);
+  }
+
+  static Entry script(Change change, long size, long lastModified, String hash) {
+    return new Entry(change.getFilename(), size, lastModified, hash, change.getId().toString(),
+        change.getDescription());
+  }
+
+  static Entry bundle(String filename, long size, long lastModified, String hash) {
+    return new Entry(filename, size, lastModified, hash, null, null);
+  }
+
+  /**
+   * @return The index stored in the file; <code>null</code> if it does not exist or cannot be read.
+   */
+  static MigrationIndex read(Path file) {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      if (!HEADER.equals(reader.readLine())) {
+        return null;
+      }
+      String[] times = reader.readLine().split(" ");
+      MigrationIndex index = new MigrationIndex(Long.parseLong(times[0]), Long.parseLong(times[1]));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = line.split("\t", -1);
+        boolean bundle = fields[0].charAt(0) == BUNDLE;
+        index.add(new Entry(fields[4], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3],
+            bundle ? null : fields[5], bundle ? null : fields[6]));
+      }
+      return index;
+    } catch (IOException | RuntimeException e) {
+      // A missing or damaged index is rebuilt.
+      return null;
+    }
+  }
+
+  /**
+   * Writes the index to a temporary file and moves it into place. Filenames containing line breaks or tabs cannot be
+   * stored, in which case nothing is written.
+   */
+  void write(Path file) throws IOException {
+    for (String filename : entries.keySet()) {
+      if (filename.indexOf('\t') > -1 || filename.indexOf('\n') > -1 || filename.indexOf('\r') > -1) {
+        return;
+      }
+    }
+    Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+      writer.write(HEADER);
+      writer.newLine();
+      writer.write(directoryModified + " " + builtAt);
+      writer.newLine();
+      for (Entry entry : entries.values()) {
+        writer.write((entry.isBundle() ? BUNDLE : SCRIPT) + "\t" + entry.size + "\t" + entry.lastModified + "\t"
+            + entry.hash + "\t" + entry.filename);
+        if (!entry.isBundle()) {
+          writer.write("\t" + entry.id + "\t" + entry.description);
+        }
+        writer.newLine();
+      }
+    }
+    try {
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -18,6 +18,14 @@ package org.apache.ibatis.migration;
 import java.io.Reader;
 import java.util.List;
 
+/**
+ * Loads migration scripts.
+ * <p>
+ * If prefetching is enabled (see
+ * {@link org.apache.ibatis.migration.options.DatabaseOperationOption#getPrefetchBufferSize()}),
+ * {@link #getScriptReader(Change, boolean)} is called on a background thread while the other methods are called on
+ * the thread applying the migrations, so the implementation must be thread-safe.
+ */
 public interface MigrationLoader {
 
   /**
@@ -45,4 +53,14 @@ public interface MigrationLoader {
    */
   Reader getOnAbortReader();
 
+  /**
+   * @param change
+   *          identifies the migration.
+   *
+   * @return The SHA-256 hash of the script as a hex string; <code>null</code> if the loader cannot compute one.
+   */
+  default String getChecksum(Change change) {
+    return null;
+  }
+
 }
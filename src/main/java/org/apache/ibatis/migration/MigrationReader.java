@@ -34,8 +34,6 @@ public class MigrationReader extends FilterReader {
 
   private boolean undo;
 
-  private Properties variables;
-
   private Part part = Part.NEW_LINE;
 
   private VariableStatus variableStatus = VariableStatus.NOTHING;
@@ -50,7 +48,16 @@ public class MigrationReader extends FilterReader {
 
   private boolean inUndo;
 
-  private final StringBuilder buffer = new StringBuilder();
+  private final char[] input = new char[8192];
+
+  // Processed characters waiting to be read, stored in a circular buffer.
+  private char[] buffer = new char[8192];
+
+  private int bufferStart;
+
+  private int bufferLength;
+
+  private final char[] singleChar = new char[1];
 
   private final StringBuilder lineBuffer = new StringBuilder();
 
@@ -89,34 +96,40 @@ public class MigrationReader extends FilterReader {
   }
 
   public MigrationReader(InputStream inputStream, String charset, boolean undo, Properties variables) {
-    super(scriptFileReader(inputStream, charset));
+    this(scriptFileReader(inputStream, charset), undo, new VariableReplacer(variables));
+  }
+
+  public MigrationReader(Reader reader, boolean undo, VariableReplacer replacer) {
+    super(reader);
     this.undo = undo;
-    this.variables = variables;
-    replacer = new VariableReplacer(this.variables);
+    this.replacer = replacer;
   }
 
   @Override
   public int read(char[] cbuf, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
     if (!undo && inUndo) {
-      if (buffer.length() > 0) {
+      if (bufferLength > 0) {
         return readFromBuffer(cbuf, off, len);
       }
       return -1;
     }
-    while (buffer.length() == 0) {
-      int result = in.read(cbuf, off, len);
+    while (bufferLength == 0) {
+      int result = in.read(input, 0, input.length);
       if (result == -1) {
         if (lineBuffer.length() > 0 && (!undo || inUndo)) {
           addToBuffer(lineBuffer);
         }
-        if (buffer.length() > 0) {
+        if (bufferLength > 0) {
           break;
         }
         return -1;
       }
 
-      for (int i = off; i < off + result; i++) {
-        char c = cbuf[i];
+      for (int i = 0; i < result; i++) {
+        char c = input[i];
 
         determinePart(c);
         searchVariable(c);
@@ -126,9 +139,9 @@ public class MigrationReader extends FilterReader {
             case AFTER_UNDO_TAG:
               if (!undo) {
                 // Won't read from the file anymore.
+                inUndo = true;
                 lineBuffer.setLength(0);
-                int bufferLen = buffer.length();
-                if (bufferLen == 0) {
+                if (bufferLength == 0) {
                   return -1;
                 }
                 return readFromBuffer(cbuf, off, len);
@@ -162,10 +175,28 @@ public class MigrationReader extends FilterReader {
 
   private void addToBuffer(StringBuilder line) {
     replaceVariables(line);
-    buffer.append(line).append(lineSeparator);
+    line.append(lineSeparator);
+    int length = line.length();
+    if (bufferLength + length > buffer.length) {
+      growBuffer(bufferLength + length);
+    }
+    int tail = (bufferStart + bufferLength) % buffer.length;
+    int first = Math.min(length, buffer.length - tail);
+    line.getChars(0, first, buffer, tail);
+    line.getChars(first, length, buffer, 0);
+    bufferLength += length;
     lineBuffer.setLength(0);
   }
 
+  private void growBuffer(int minCapacity) {
+    char[] grown = new char[Math.max(buffer.length * 2, minCapacity)];
+    int first = Math.min(bufferLength, buffer.length - bufferStart);
+    System.arraycopy(buffer, bufferStart, grown, 0, first);
+    System.arraycopy(buffer, 0, grown, first, bufferLength - first);
+    buffer = grown;
+    bufferStart = 0;
+  }
+
   private void replaceVariables(StringBuilder line) {
     if (variableStatus == VariableStatus.FOUND_POSSIBLE_VARIABLE) {
       String lineBufferStr = line.toString();
@@ -179,10 +210,12 @@ public class MigrationReader extends FilterReader {
   }
 
   private int readFromBuffer(char[] cbuf, int off, int len) {
-    int bufferLen = buffer.length();
-    int read = bufferLen > len ? len : bufferLen;
-    buffer.getChars(0, read, cbuf, off);
-    buffer.delete(0, read);
+    int read = Math.min(len, bufferLength);
+    int first = Math.min(read, buffer.length - bufferStart);
+    System.arraycopy(buffer, bufferStart, cbuf, off, first);
+    System.arraycopy(buffer, 0, cbuf, off + first, read - first);
+    bufferStart = (bufferStart + read) % buffer.length;
+    bufferLength -= read;
     return read;
   }
 
@@ -270,9 +303,8 @@ public class MigrationReader extends FilterReader {
 
   @Override
   public int read() throws IOException {
-    char[] buf = new char[1];
-    int result = read(buf, 0, 1);
-    return result == -1 ? -1 : (int) buf[0];
+    int result = read(singleChar, 0, 1);
+    return result == -1 ? -1 : (int) singleChar[0];
   }
 
   protected static Reader scriptFileReader(InputStream inputStream, String charset) {
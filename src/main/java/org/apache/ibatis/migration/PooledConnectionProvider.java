@@ -0,0 +1,270 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * A small connection pool on top of another {@link ConnectionProvider}.
+ * <p>
+ * Closing a borrowed connection rolls back any uncommitted work, restores its auto-commit mode and returns it to the
+ * pool. Idle connections are validated when they are borrowed and closed once they have been idle longer than the idle
+ * timeout, keeping at least the minimum number. When all pooled connections are in use, an extra connection is opened
+ * and closed again when it is returned, so that nested operations and hooks never wait for each other.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, AutoCloseable {
+
+  private final ConnectionProvider delegate;
+
+  private int minimumSize;
+  private int maximumSize = 4;
+  private int validationTimeout = 5;
+  private long idleTimeout = 60_000L;
+
+  private final Deque<PooledConnection> idle = new ArrayDeque<>();
+  private int active;
+  private boolean closed;
+
+  public PooledConnectionProvider(ConnectionProvider delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * @param minimumSize
+   *          the number of idle connections that are never closed for being idle
+   */
+  public void setMinimumSize(int minimumSize) {
+    this.minimumSize = minimumSize;
+  }
+
+  /**
+   * @param maximumSize
+   *          the maximum number of connections kept by the pool
+   */
+  public void setMaximumSize(int maximumSize) {
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * @param validationTimeout
+   *          seconds to wait for {@link Connection#isValid(int)} when a connection is borrowed; <code>0</code> disables
+   *          validation
+   */
+  public void setValidationTimeout(int validationTimeout) {
+    this.validationTimeout = validationTimeout;
+  }
+
+  /**
+   * @param idleTimeout
+   *          milliseconds after which an idle connection is closed; <code>0</code> keeps idle connections open
+   */
+  public void setIdleTimeout(long idleTimeout) {
+    this.idleTimeout = idleTimeout;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    PooledConnection connection;
+    while ((connection = borrow()) != null) {
+      if (validationTimeout <= 0 || isValid(connection.target)) {
+        return connection.open();
+      }
+      release(connection, false);
+    }
+    boolean pooled = reserve();
+    try {
+      return new PooledConnection(delegate.getConnection(), pooled).open();
+    } catch (SQLException | RuntimeException e) {
+      if (pooled) {
+        release(null, false);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Closes the idle connections. Connections that are still in use are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    Deque<PooledConnection> connections;
+    synchronized (this) {
+      closed = true;
+      connections = new ArrayDeque<>(idle);
+      idle.clear();
+    }
+    for (PooledConnection connection : connections) {
+      closeQuietly(connection.target);
+    }
+  }
+
+  private synchronized PooledConnection borrow() throws SQLException {
+    if (closed) {
+      throw new SQLException("The connection pool is closed.");
+    }
+    evictIdle();
+    PooledConnection connection = idle.pollFirst();
+    if (connection != null) {
+      active++;
+    }
+    return connection;
+  }
+
+  private synchronized boolean reserve() {
+    if (active + idle.size() < maximumSize) {
+      active++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Gives back a pooled connection, closing it if it is not reusable.
+   */
+  private void release(PooledConnection connection, boolean reusable) {
+    synchronized (this) {
+      active--;
+      if (connection != null && reusable && !closed) {
+        connection.lastUsed = System.currentTimeMillis();
+        idle.addFirst(connection);
+        evictIdle();
+        return;
+      }
+    }
+    if (connection != null) {
+      closeQuietly(connection.target);
+    }
+  }
+
+  private void evictIdle() {
+    if (idleTimeout <= 0) {
+      return;
+    }
+    long expired = System.currentTimeMillis() - idleTimeout;
+    // The least recently used connections are at the end.
+    Iterator<PooledConnection> iterator = idle.descendingIterator();
+    while (iterator.hasNext() && active + idle.size() > minimumSize) {
+      PooledConnection connection = iterator.next();
+      if (connection.lastUsed > expired) {
+        break;
+      }
+      iterator.remove();
+      closeQuietly(connection.target);
+    }
+  }
+
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(validationTimeout);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private static void closeQuietly(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+  private final class PooledConnection implements InvocationHandler {
+    private final Connection target;
+    private final boolean pooled;
+    private final boolean autoCommit;
+    private long lastUsed;
+    private Connection proxy;
+
+    PooledConnection(Connection target, boolean pooled) throws SQLException {
+      this.target = target;
+      this.pooled = pooled;
+      this.autoCommit = target.getAutoCommit();
+    }
+
+    Connection open() {
+      proxy = (Connection) Proxy.newProxyInstance(PooledConnectionProvider.class.getClassLoader(),
+          new Class<?>[] { Connection.class }, this);
+      return proxy;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String name = method.getName();
+      if ("close".equals(name) && method.getParameterCount() == 0) {
+        returnConnection(proxy);
+        return null;
+      }
+      if ("isClosed".equals(name) && method.getParameterCount() == 0) {
+        return this.proxy != proxy || target.isClosed();
+      }
+      if ("equals".equals(name) && method.getParameterCount() == 1) {
+        return proxy == args[0];
+      }
+      if ("hashCode".equals(name) && method.getParameterCount() == 0) {
+        return System.identityHashCode(proxy);
+      }
+      if (this.proxy != proxy && method.getDeclaringClass() != Object.class) {
+        throw new SQLException("Connection is closed.");
+      }
+      try {
+        return method.invoke(target, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+
+    private void returnConnection(Object proxy) {
+      synchronized (this) {
+        if (this.proxy != proxy) {
+          return;
+        }
+        this.proxy = null;
+      }
+      if (!pooled) {
+        closeQuietly(target);
+        return;
+      }
+      release(this, reset());
+    }
+
+    private boolean reset() {
+      try {
+        if (target.isClosed()) {
+          return false;
+        }
+        if (!target.getAutoCommit()) {
+          target.rollback();
+        }
+        if (target.getAutoCommit() != autoCommit) {
+          target.setAutoCommit(autoCommit);
+        }
+        target.clearWarnings();
+        return true;
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ *    Copyright 2010-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Decodes a range of a script file straight into the caller's buffer. Ranges of at least the map threshold are
+ * memory-mapped in windows; smaller ranges are read through a pooled direct buffer.
+ */
+final class ScriptChannelReader extends Reader {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final long MAX_WINDOW = 256L * 1024 * 1024;
+
+  private static final BlockingQueue<ByteBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(16);
+
+  private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+  private final FileChannel channel;
+  private final CharsetDecoder decoder;
+  private final boolean mapped;
+  private final long end;
+
+  private ByteBuffer bytes;
+  private long windowStart;
+  private long windowEnd;
+  private boolean endOfInput;
+  private boolean flushing;
+  private boolean finished;
+  private boolean closed;
+
+  /**
+   * @param start
+   *          the offset of the first byte to read
+   * @param end
+   *          the offset after the last byte to read; it is limited to the size of the file
+   * @param mapThreshold
+   *          ranges of at least this many bytes are memory-mapped; <code>0</code> or less to never map
+   */
+  ScriptChannelReader(Path path, long start, long end, Charset charset, long mapThreshold) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      this.end = Math.min(end, channel.size());
+      // Same error handling as InputStreamReader.
+      this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+      this.mapped = mapThreshold > 0 && this.end - start >= mapThreshold;
+      if (mapped) {
+        bytes = EMPTY;
+        windowStart = start;
+        windowEnd = start;
+      } else {
+        bytes = acquireBuffer();
+        bytes.flip();
+        channel.position(start);
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(char[] cbuf, int off, int len) throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (len == 0) {
+      return 0;
+    }
+    if (finished) {
+      return -1;
+    }
+    CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+    while (true) {
+      CoderResult result = flushing ? decoder.flush(out) : decoder.decode(bytes, out, endOfInput);
+      if (result.isOverflow()) {
+        break;
+      }
+      if (endOfInput) {
+        if (flushing) {
+          finished = true;
+          break;
+        }
+        flushing = true;
+      } else if (out.position() > off) {
+        break;
+      } else if (mapped) {
+        nextWindow();
+      } else {
+        fillBuffer();
+      }
+    }
+    int read = out.position() - off;
+    return read == 0 && finished ? -1 : read;
+  }
+
+  private void nextWindow() throws IOException {
+    if (windowEnd >= end) {
+      endOfInput = true;
+      return;
+    }
+    // Bytes of an incomplete character at the end of the window are mapped again.
+    windowStart += bytes.position();
+    windowEnd = Math.min(end, windowStart + MAX_WINDOW);
+    bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+  }
+
+  private void fillBuffer() throws IOException {
+    bytes.compact();
+    long remaining = end - channel.position();
+    if (remaining <= 0) {
+      endOfInput = true;
+    } else {
+      bytes.limit((int) Math.min(bytes.capacity(), bytes.position() + remaining));
+      if (channel.read(bytes) == -1) {
+        endOfInput = true;
+      }
+    }
+    bytes.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      if (!mapped) {
+        releaseBuffer(bytes);
+      }
+      bytes = EMPTY;
+      channel.close();
+    }
+  }
+
+  private static ByteBuffer acquireBuffer() {
+    ByteBuffer buffer = BUFFER_POOL.poll();
+    return buffer == null ? ByteBuffer.allocateDirect(BUFFER_SIZE) : buffer;
+  }
+
+  private static void releaseBuffer(ByteBuffer buffer) {
+    buffer.clear();
+    BUFFER_POOL.offer(buffer);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ *    Copyright 2010-2025 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Finds the byte offset of the line holding the first {@code --//@UNDO} marker of a migration script without decoding
+ * it. Offsets are cached by path and recomputed when the size or modification time of the file changes.
+ * <p>
+ * The scan follows the rules of {@link MigrationReader}, so it is only used with charsets that encode whitespace,
+ * line breaks and the marker as ASCII.
+ */
+final class UndoMarkerIndex {
+
+  private static final String MARKER_CHARS = "\t\r\n -/@UNDO";
+
+  private static final byte[] UNDO_TAG = "@UNDO".getBytes(StandardCharsets.US_ASCII);
+
+  private static final ConcurrentMap<Path, Entry> CACHE = new ConcurrentHashMap<>();
+
+  private static final class Entry {
+    private final long size;
+    private final long lastModified;
+    private final long offset;
+
+    Entry(long size, long lastModified, long offset) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.offset = offset;
+    }
+  }
+
+  private enum Part {
+    NOT_UNDO_LINE,
+
+    NEW_LINE,
+
+    COMMENT_PREFIX,
+
+    AFTER_COMMENT_PREFIX,
+
+    DOUBLE_SLASH,
+
+    AFTER_DOUBLE_SLASH,
+
+    UNDO_TAG,
+
+    AFTER_UNDO_TAG
+  }
+
+  private UndoMarkerIndex() {
+  }
+
+  static boolean supports(String charset) {
+    try {
+      Charset cs = charset == null || charset.length() == 0 ? Charset.defaultCharset() : Charset.forName(charset);
+      return Arrays.equals(MARKER_CHARS.getBytes(cs), MARKER_CHARS.getBytes(StandardCharsets.US_ASCII));
+    } catch (IllegalArgumentException | UnsupportedOperationException e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return The offset of the marker line; the file size if the script has no marker.
+   */
+  static long undoOffset(Path path) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Entry entry = CACHE.get(path);
+    if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+      return entry.offset;
+    }
+    long offset = scan(path, size);
+    CACHE.put(path, new Entry(size, lastModified, offset));
+    return offset;
+  }
+
+  /**
+   * @return The cached offset of the marker line; <code>-1</code> if the file has not been indexed or has changed.
+   */
+  static long cachedUndoOffset(Path path) throws IOException {
+    Entry entry = CACHE.get(path);
+    if (entry == null) {
+      return -1;
+    }
+    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+    if (entry.size != attributes.size() || entry.lastModified != attributes.lastModifiedTime().toMillis()) {
+      return -1;
+    }
+    return entry.offset;
+  }
+
+  private static long scan(Path path, long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(8192);
+      Part part = Part.NEW_LINE;
+      long position = 0;
+      long lineStart = 0;
+      int undoIndex = 0;
+      byte previous = 0;
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          byte b = buffer.get();
+          switch (part) {
+            case NEW_LINE:
+              if (b == '/' || b == '-') {
+                part = Part.COMMENT_PREFIX;
+              } else if (b != '\t' && b != ' ') {
+                part = Part.NOT_UNDO_LINE;
+              }
+              break;
+            case COMMENT_PREFIX:
+              part = b == previous ? Part.AFTER_COMMENT_PREFIX : Part.NOT_UNDO_LINE;
+              break;
+            case AFTER_COMMENT_PREFIX:
+              if (b == '/') {
+                part = Part.DOUBLE_SLASH;
+              } else if (b != '\t' && b != ' ') {
+                part = Part.NOT_UNDO_LINE;
+              }
+              break;
+            case DOUBLE_SLASH:
+              part = b == '/' ? Part.AFTER_DOUBLE_SLASH : Part.NOT_UNDO_LINE;
+              break;
+            case AFTER_DOUBLE_SLASH:
+              if (b == UNDO_TAG[0]) {
+                part = Part.UNDO_TAG;
+                undoIndex = 1;
+              } else if (b != '\t' && b != ' ') {
+                part = Part.NOT_UNDO_LINE;
+              }
+              break;
+            case UNDO_TAG:
+              if (b != UNDO_TAG[undoIndex]) {
+                part = Part.NOT_UNDO_LINE;
+              } else if (++undoIndex >= UNDO_TAG.length) {
+                part = Part.AFTER_UNDO_TAG;
+              }
+              break;
+            default:
+              break;
+          }
+          position++;
+          if (b == '\r' || b == '\n') {
+            if (part == Part.AFTER_UNDO_TAG) {
+              // Like MigrationReader, only a terminated marker line counts.
+              return lineStart;
+            }
+            part = Part.NEW_LINE;
+            lineStart = position;
+          }
+          previous = b;
+        }
+        buffer.clear();
+      }
+      return size;
+    }
+  }
+}
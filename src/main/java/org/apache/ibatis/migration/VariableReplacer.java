@@ -16,6 +16,7 @@
 package org.apache.ibatis.migration;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -29,14 +30,48 @@ public class VariableReplacer {
   private static final String OPEN_TOKEN = "${";
   private static final String CLOSE_TOKEN = "}";
   private final List<Map<? extends Object, ? extends Object>> variablesList;
+  private final boolean compiled;
+  private volatile Map<String, String> table;
 
   public VariableReplacer(Map<? extends Object, ? extends Object> variablesList) {
     this(Arrays.asList(variablesList));
   }
 
   public VariableReplacer(List<Map<? extends Object, ? extends Object>> variablesList) {
+    this(variablesList, false);
+  }
+
+  private VariableReplacer(List<Map<? extends Object, ? extends Object>> variablesList, boolean compiled) {
     this.variablesList = variablesList == null ? List.of()
         : variablesList.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    this.compiled = compiled;
+  }
+
+  /**
+   * Returns a replacer that copies the variables into a single lookup table the first time it is used. Changes made
+   * to the maps after that are not seen.
+   *
+   * @param variables
+   *          the variables
+   *
+   * @return the replacer
+   */
+  public static VariableReplacer compile(Map<? extends Object, ? extends Object> variables) {
+    return compile(Arrays.asList(variables));
+  }
+
+  /**
+   * Returns a replacer that copies the variables into a single lookup table the first time it is used. Changes made
+   * to the maps after that are not seen. As with {@link #VariableReplacer(List)}, the first map containing a variable
+   * wins.
+   *
+   * @param variablesList
+   *          the variables
+   *
+   * @return the replacer
+   */
+  public static VariableReplacer compile(List<Map<? extends Object, ? extends Object>> variablesList) {
+    return new VariableReplacer(variablesList, true);
   }
 
   public String replace(String text) {
@@ -48,59 +83,68 @@ public class VariableReplacer {
     if (start == -1) {
       return text;
     }
-    char[] src = text.toCharArray();
+    int length = text.length();
     int offset = 0;
-    final StringBuilder builder = new StringBuilder();
+    final StringBuilder builder = new StringBuilder(length + 16);
     StringBuilder expression = null;
     while (start > -1) {
-      if (start > 0 && src[start - 1] == '\\') {
+      if (start > 0 && text.charAt(start - 1) == '\\') {
         // this open token is escaped. remove the backslash and continue.
-        builder.append(src, offset, start - offset - 1).append(OPEN_TOKEN);
+        builder.append(text, offset, start - 1).append(OPEN_TOKEN);
         offset = start + OPEN_TOKEN.length();
       } else {
         // found open token. let's search close token.
-        if (expression == null) {
-          expression = new StringBuilder();
-        } else {
-          expression.setLength(0);
-        }
-        builder.append(src, offset, start - offset);
+        builder.append(text, offset, start);
         offset = start + OPEN_TOKEN.length();
         int end = text.indexOf(CLOSE_TOKEN, offset);
+        String key = null;
         while (end > -1) {
-          if (end <= offset || src[end - 1] != '\\') {
-            expression.append(src, offset, end - offset);
+          if (end <= offset || text.charAt(end - 1) != '\\') {
+            key = expression == null ? text.substring(offset, end) : expression.append(text, offset, end).toString();
             break;
           }
           // this close token is escaped. remove the backslash and continue.
-          expression.append(src, offset, end - offset - 1).append(CLOSE_TOKEN);
+          if (expression == null) {
+            expression = new StringBuilder();
+          }
+          expression.append(text, offset, end - 1).append(CLOSE_TOKEN);
           offset = end + CLOSE_TOKEN.length();
           end = text.indexOf(CLOSE_TOKEN, offset);
         }
+        if (expression != null) {
+          expression.setLength(0);
+        }
         if (end == -1) {
           // close token was not found.
-          builder.append(src, start, src.length - start);
-          offset = src.length;
+          builder.append(text, start, length);
+          offset = length;
         } else {
-          appendWithReplace(builder, expression.toString());
+          appendWithReplace(builder, key);
           offset = end + CLOSE_TOKEN.length();
         }
       }
       start = text.indexOf(OPEN_TOKEN, offset);
     }
-    if (offset < src.length) {
-      builder.append(src, offset, src.length - offset);
+    if (offset < length) {
+      builder.append(text, offset, length);
     }
     return builder.toString();
   }
 
   private StringBuilder appendWithReplace(StringBuilder builder, String key) {
     String value = null;
-    for (Map<? extends Object, ? extends Object> variables : variablesList) {
-      value = (String) variables.get(key);
+    if (compiled) {
+      value = table().get(key);
       if (value != null) {
         builder.append(value);
-        break;
+      }
+    } else {
+      for (Map<? extends Object, ? extends Object> variables : variablesList) {
+        value = (String) variables.get(key);
+        if (value != null) {
+          builder.append(value);
+          break;
+        }
       }
     }
     if (value == null) {
@@ -108,4 +152,22 @@ public class VariableReplacer {
     }
     return builder;
   }
+
+  private Map<String, String> table() {
+    Map<String, String> result = table;
+    if (result == null) {
+      Map<String, String> flattened = new HashMap<>();
+      // Earlier maps take precedence.
+      for (int i = variablesList.size() - 1; i >= 0; i--) {
+        for (Map.Entry<? extends Object, ? extends Object> entry : variablesList.get(i).entrySet()) {
+          if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+            flattened.put((String) entry.getKey(), (String) entry.getValue());
+          }
+        }
+      }
+      result = Map.copyOf(flattened);
+      table = result;
+    }
+    return result;
+  }
 }
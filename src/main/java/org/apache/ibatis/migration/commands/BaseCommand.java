@@ -46,6 +46,7 @@ import org.apache.ibatis.migration.FileMigrationLoaderFactory;
 import org.apache.ibatis.migration.JdbcConnectionProvider;
 import org.apache.ibatis.migration.MigrationException;
 import org.apache.ibatis.migration.MigrationLoader;
+import org.apache.ibatis.migration.PooledConnectionProvider;
 import org.apache.ibatis.migration.VariableReplacer;
 import org.apache.ibatis.migration.hook.FileHookScriptFactory;
 import org.apache.ibatis.migration.hook.FileMigrationHook;
@@ -58,12 +59,14 @@ import org.apache.ibatis.migration.options.SelectedOptions;
 import org.apache.ibatis.migration.options.SelectedPaths;
 import org.apache.ibatis.migration.utils.Util;
 
-public abstract class BaseCommand implements Command {
+public abstract class BaseCommand implements Command, AutoCloseable {
   private static final String DATE_FORMAT = "yyyyMMddHHmmss";
   protected static final String DESC_CREATE_CHANGELOG = "create changelog";
 
   private ClassLoader driverClassLoader;
   private Environment environment;
+  private PooledConnectionProvider connectionPool;
+  private boolean poolConnections;
 
   protected PrintStream printStream = System.out;
 
@@ -94,6 +97,17 @@ public abstract class BaseCommand implements Command {
     printStream = aPrintStream;
   }
 
+  /**
+   * Pools the connections of this command as configured by the environment. The caller must {@link #close()} the command
+   * once it has been executed.
+   *
+   * @param poolConnections
+   *          <code>true</code> to pool connections; pooling is off by default
+   */
+  public void setPoolConnections(boolean poolConnections) {
+    this.poolConnections = poolConnections;
+  }
+
   protected boolean paramsEmpty(String... params) {
     return params == null || params.length < 1 || params[0] == null || params[0].length() < 1;
   }
@@ -176,7 +190,7 @@ public abstract class BaseCommand implements Command {
   }
 
   protected static void copyTemplate(Reader templateReader, File toFile, Properties variables) throws IOException {
-    VariableReplacer replacer = new VariableReplacer(variables);
+    VariableReplacer replacer = VariableReplacer.compile(variables);
     try (LineNumberReader reader = new LineNumberReader(templateReader);
         PrintWriter writer = new PrintWriter(Files.newBufferedWriter(toFile.toPath()))) {
       String line;
@@ -220,12 +234,36 @@ public abstract class BaseCommand implements Command {
   }
 
   protected ConnectionProvider getConnectionProvider() {
+    if (connectionPool != null) {
+      return connectionPool;
+    }
+    ConnectionProvider connectionProvider;
     try {
-      return new JdbcConnectionProvider(getDriverClassLoader(), environment().getDriver(), environment().getUrl(),
-          environment().getUsername(), environment().getPassword());
+      connectionProvider = new JdbcConnectionProvider(getDriverClassLoader(), environment().getDriver(),
+          environment().getUrl(), environment().getUsername(), environment().getPassword());
     } catch (Exception e) {
       throw new MigrationException("Error creating ScriptRunner.  Cause: " + e, e);
     }
+    if (!poolConnections || environment().getPoolMaximumSize() <= 0) {
+      return connectionProvider;
+    }
+    connectionPool = new PooledConnectionProvider(connectionProvider);
+    connectionPool.setMinimumSize(environment().getPoolMinimumSize());
+    connectionPool.setMaximumSize(environment().getPoolMaximumSize());
+    connectionPool.setValidationTimeout(environment().getPoolValidationTimeout());
+    connectionPool.setIdleTimeout(environment().getPoolIdleTimeout());
+    return connectionPool;
+  }
+
+  /**
+   * Closes the pooled connections of this command.
+   */
+  @Override
+  public void close() {
+    if (connectionPool != null) {
+      connectionPool.close();
+      connectionPool = null;
+    }
   }
 
   private ClassLoader getDriverClassLoader() {
@@ -273,8 +311,14 @@ public abstract class BaseCommand implements Command {
       }
       migrationLoader = factory.create(paths, env);
     }
-    return migrationLoader != null ? migrationLoader
-        : new FileMigrationLoader(paths.getScriptPath(), env.getScriptCharset(), env.getVariables());
+    if (migrationLoader != null) {
+      return migrationLoader;
+    }
+    FileMigrationLoader fileMigrationLoader = new FileMigrationLoader(paths.getScriptPath(), env.getScriptCharset(),
+        env.getVariables());
+    fileMigrationLoader.setMemoryMapThreshold(env.getMemoryMapThreshold());
+    fileMigrationLoader.setUseIndex(env.isScriptIndex());
+    return fileMigrationLoader;
   }
 
   protected MigrationHook createUpHook() {
@@ -308,14 +352,25 @@ public abstract class BaseCommand implements Command {
   protected DatabaseOperationOption getDatabaseOperationOption() {
     DatabaseOperationOption option = new DatabaseOperationOption();
     option.setChangelogTable(changelogTable());
+    option.setChangelogChecksum(environment().isChangelogChecksum());
+    option.setChangelogPageSize(environment().getChangelogPageSize());
     option.setStopOnError(!options.isForce());
     option.setThrowWarning(!options.isForce() && !environment().isIgnoreWarnings());
     option.setEscapeProcessing(false);
     option.setAutoCommit(environment().isAutoCommit());
     option.setFullLineDelimiter(environment().isFullLineDelimiter());
+    option.setBackslashEscapes(environment().isBackslashEscapes());
     option.setSendFullScript(environment().isSendFullScript());
     option.setRemoveCRs(environment().isRemoveCrs());
     option.setDelimiter(environment().getDelimiter());
+    option.setBatchSize(environment().getBatchSize());
+    option.setSlowStatementThreshold(environment().getSlowStatementThreshold());
+    option.setStatementTimeout(environment().getStatementTimeout());
+    option.setMigrationTimeout(environment().getMigrationTimeout());
+    option.setEchoInterval(environment().getEchoInterval());
+    option.setPrefetchBufferSize(environment().getPrefetchBufferSize());
+    option.setParseAhead(environment().getParseAhead());
+    option.setCheckpointTable(environment().getCheckpointTable());
     return option;
   }
 }
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2010-2023 the original author or authors.
+ *    Copyright 2010-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -37,6 +37,8 @@ public enum Commands {
 
   VERSION,
 
+  VALIDATE,
+
   STATUS,
 
   REDO;
@@ -72,6 +74,8 @@ public enum Commands {
         return new ScriptCommand(selectedOptions);
       case VERSION:
         return new VersionCommand(selectedOptions);
+      case VALIDATE:
+        return new ValidateCommand(selectedOptions);
       case STATUS:
         return new StatusCommand(selectedOptions);
       case REDO:
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2010-2022 the original author or authors.
+ *    Copyright 2010-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -15,11 +15,7 @@
  */
 package org.apache.ibatis.migration.commands;
 
-import org.apache.ibatis.migration.ConnectionProvider;
-import org.apache.ibatis.migration.MigrationLoader;
-import org.apache.ibatis.migration.operations.DownOperation;
-import org.apache.ibatis.migration.operations.UpOperation;
-import org.apache.ibatis.migration.options.DatabaseOperationOption;
+import org.apache.ibatis.migration.operations.RedoOperation;
 import org.apache.ibatis.migration.options.SelectedOptions;
 
 public final class RedoCommand extends BaseCommand {
@@ -30,14 +26,7 @@ public final class RedoCommand extends BaseCommand {
   @Override
   public void execute(String... params) {
     int steps = getStepCountParameter(1, params);
-    ConnectionProvider connectionProvider = getConnectionProvider();
-    MigrationLoader migrationLoader = getMigrationLoader();
-    DatabaseOperationOption databaseOperationOption = getDatabaseOperationOption();
-
-    DownOperation downOperation = new DownOperation(steps);
-    downOperation.operate(connectionProvider, migrationLoader, databaseOperationOption, printStream, createDownHook());
-
-    UpOperation upOperation = new UpOperation(steps);
-    upOperation.operate(connectionProvider, migrationLoader, databaseOperationOption, printStream, createUpHook());
+    new RedoOperation(steps).operate(getConnectionProvider(), getMigrationLoader(), getDatabaseOperationOption(),
+        printStream, createDownHook(), createUpHook());
   }
 }
@@ -132,6 +132,13 @@ public final class ScriptCommand extends BaseCommand {
   }
 
   private String generateVersionInsert(Change change) {
+    if (environment().isChangelogChecksum()) {
+      String checksum = getMigrationLoader().getChecksum(change);
+      return "INSERT INTO " + changelogTable() + " (ID, APPLIED_AT, DESCRIPTION, CHECKSUM) " + "VALUES ("
+          + change.getId() + ", '" + DatabaseOperation.generateAppliedTimeStampAsString() + "', '"
+          + change.getDescription().replace('\'', ' ') + "', " + (checksum == null ? "NULL" : "'" + checksum + "'")
+          + ")" + getDelimiter();
+    }
     return "INSERT INTO " + changelogTable() + " (ID, APPLIED_AT, DESCRIPTION) " + "VALUES (" + change.getId() + ", '"
         + DatabaseOperation.generateAppliedTimeStampAsString() + "', '" + change.getDescription().replace('\'', ' ')
         + "')" + getDelimiter();
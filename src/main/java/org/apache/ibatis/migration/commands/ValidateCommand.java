@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.commands;
+
+import org.apache.ibatis.migration.operations.ValidateOperation;
+import org.apache.ibatis.migration.options.SelectedOptions;
+
+public final class ValidateCommand extends BaseCommand {
+  private ValidateOperation operation;
+
+  public ValidateCommand(SelectedOptions options) {
+    super(options);
+  }
+
+  @Override
+  public void execute(String... params) {
+    operation = new ValidateOperation().operate(getConnectionProvider(), getMigrationLoader(),
+        getDatabaseOperationOption(), printStream);
+  }
+
+  public ValidateOperation getOperation() {
+    return operation;
+  }
+}
@@ -1,5 +1,5 @@
 /*
- *    Copyright 2010-2025 the original author or authors.
+ *    Copyright 2010-2026 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -17,7 +17,6 @@ package org.apache.ibatis.migration.hook;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
@@ -30,6 +29,8 @@ import java.util.Properties;
 import java.util.Set;
 
 import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
@@ -62,6 +63,12 @@ public class Jsr223HookScript implements HookScript {
   protected List<String> args = new ArrayList<>();
   protected Map<String, String> localVars = new HashMap<>();
 
+  private ScriptEngine engine;
+  private Bindings emptyBindings;
+  private String source;
+  private CompiledScript compiledScript;
+  private long scriptLastModified;
+
   public Jsr223HookScript(String language, File scriptFile, String charset, String[] options, SelectedPaths paths,
       Properties variables, PrintStream printStream) {
     this.language = language;
@@ -91,20 +98,22 @@ public class Jsr223HookScript implements HookScript {
   }
 
   @Override
-  public void execute(Map<String, Object> bindingMap) {
-    ScriptEngineManager manager = new ScriptEngineManager();
-    ScriptEngine engine = manager.getEngineByName(language);
+  public synchronized void execute(Map<String, Object> bindingMap) {
+    ScriptEngine engine = getEngine();
     // bind global/local variables defined in the environment file
-    Bindings bindings = engine.getContext().getBindings(ScriptContext.ENGINE_SCOPE);
+    Bindings bindings = engine.createBindings();
     bindVariables(bindingMap, variables.entrySet());
     bindVariables(bindingMap, localVars.entrySet());
     bindings.put(MIGRATION_PATHS, paths);
     bindings.putAll(bindingMap);
+    engine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
     try {
       printStream.println(Util.horizontalLine("Applying JSR-223 hook : " + scriptFile.getName(), 80));
-      try (InputStreamReader stream = new InputStreamReader(Files.newInputStream(scriptFile.toPath()),
-          Charset.forName(charset))) {
-        engine.eval(stream);
+      loadScript(engine);
+      if (compiledScript != null) {
+        compiledScript.eval();
+      } else {
+        engine.eval(source);
       }
       if (functionName != null || objectName != null && methodName != null) {
         Invocable invocable = (Invocable) engine;
@@ -128,7 +137,35 @@ public class Jsr223HookScript implements HookScript {
       throw new MigrationException("Failed to execute JSR-223 hook script.", e);
     } catch (NoSuchMethodException e) {
       throw new MigrationException("Method or function not found in JSR-223 hook script: " + functionName, e);
+    } finally {
+      // Do not keep the bindings (and the objects in them) reachable until the next invocation.
+      engine.setBindings(emptyBindings, ScriptContext.ENGINE_SCOPE);
+    }
+  }
+
+  private ScriptEngine getEngine() {
+    if (engine == null) {
+      engine = new ScriptEngineManager().getEngineByName(language);
+      if (engine == null) {
+        throw new MigrationException("No JSR-223 script engine found for language '" + language + "'.");
+      }
+      emptyBindings = engine.createBindings();
+    }
+    return engine;
+  }
+
+  /**
+   * Reads the script file when it is first used or has been modified since, compiling it if the engine supports it.
+   */
+  private void loadScript(ScriptEngine engine) throws IOException, ScriptException {
+    long lastModified = scriptFile.lastModified();
+    if (source != null && lastModified == scriptLastModified) {
+      return;
     }
+    String text = new String(Files.readAllBytes(scriptFile.toPath()), Charset.forName(charset));
+    compiledScript = engine instanceof Compilable ? ((Compilable) engine).compile(text) : null;
+    source = text;
+    scriptLastModified = lastModified;
   }
 
   private <S, T> void bindVariables(Map<String, Object> bindingMap, Set<Entry<S, T>> vars) {
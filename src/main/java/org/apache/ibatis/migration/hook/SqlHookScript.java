@@ -38,6 +38,11 @@ public class SqlHookScript implements HookScript {
   protected final PrintStream printStream;
   protected final VariableReplacer replacer;
 
+  // The script with variables replaced, reused while the file is unchanged.
+  private String script;
+  private long scriptLastModified;
+  private long scriptLength;
+
   public SqlHookScript(File scriptFile, String charset, String[] options, Properties variables,
       PrintStream printStream) {
     this.scriptFile = scriptFile;
@@ -51,7 +56,7 @@ public class SqlHookScript implements HookScript {
         this.variables.put(option.substring(0, sep), option.substring(sep + 1));
       }
     }
-    replacer = new VariableReplacer(this.variables);
+    replacer = VariableReplacer.compile(this.variables);
   }
 
   @Override
@@ -59,18 +64,30 @@ public class SqlHookScript implements HookScript {
     HookContext context = (HookContext) bindingMap.get(MigrationHook.HOOK_CONTEXT);
     printStream.println(Util.horizontalLine("Applying SQL hook: " + scriptFile.getName(), 80));
 
+    try (StringReader reader = new StringReader(readScript())) {
+      context.executeSql(reader);
+    } catch (IOException e) {
+      throw new MigrationException("Error occurred while running SQL hook script.", e);
+    }
+  }
+
+  private String readScript() throws IOException {
+    long lastModified = scriptFile.lastModified();
+    long length = scriptFile.length();
+    if (script != null && lastModified == scriptLastModified && length == scriptLength) {
+      return script;
+    }
     try (InputStream inputStream = Files.newInputStream(scriptFile.toPath());
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
       byte[] buffer = new byte[1024];
-      int length;
-      while ((length = inputStream.read(buffer)) != -1) {
-        outputStream.write(buffer, 0, length);
-      }
-      try (StringReader reader = new StringReader(replacer.replace(outputStream.toString(Charset.forName(charset))))) {
-        context.executeSql(reader);
+      int read;
+      while ((read = inputStream.read(buffer)) != -1) {
+        outputStream.write(buffer, 0, read);
       }
-    } catch (IOException e) {
-      throw new MigrationException("Error occurred while running SQL hook script.", e);
+      script = replacer.replace(outputStream.toString(Charset.forName(charset)));
+      scriptLastModified = lastModified;
+      scriptLength = length;
+      return script;
     }
   }
 }
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The super class and interfaces of a class, read from the start of its class file without loading the class. Only
+ * the constant pool and the header that follows it are read.
+ */
+final class ClassFileHeader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private final String superName;
+  private final String[] interfaceNames;
+
+  private ClassFileHeader(String superName, String[] interfaceNames) {
+    this.superName = superName;
+    this.interfaceNames = interfaceNames;
+  }
+
+  /**
+   * @return The internal name (e.g. {@code java/lang/Object}) of the super class, or null for {@code Object} itself.
+   */
+  String getSuperName() {
+    return superName;
+  }
+
+  String[] getInterfaceNames() {
+    return interfaceNames;
+  }
+
+  /**
+   * @return The header of the class file, or null if the class file cannot be found or is not valid.
+   */
+  static ClassFileHeader read(ClassLoader loader, String internalName) {
+    InputStream resource = loader.getResourceAsStream(internalName + ".class");
+    if (resource == null) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(resource, 4096))) {
+      return read(in);
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static ClassFileHeader read(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      return null;
+    }
+    in.skipBytes(4); // minor and major version
+    int count = in.readUnsignedShort();
+    String[] utf8 = new String[count];
+    int[] classNameIndexes = new int[count];
+    for (int i = 1; i < count; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1: // Utf8
+          utf8[i] = in.readUTF();
+          break;
+        case 7: // Class
+          classNameIndexes[i] = in.readUnsignedShort();
+          break;
+        case 8: // String
+        case 16: // MethodType
+        case 19: // Module
+        case 20: // Package
+          in.skipBytes(2);
+          break;
+        case 15: // MethodHandle
+          in.skipBytes(3);
+          break;
+        case 3: // Integer
+        case 4: // Float
+        case 9: // Fieldref
+        case 10: // Methodref
+        case 11: // InterfaceMethodref
+        case 12: // NameAndType
+        case 17: // Dynamic
+        case 18: // InvokeDynamic
+          in.skipBytes(4);
+          break;
+        case 5: // Long
+        case 6: // Double
+          in.skipBytes(8);
+          i++;
+          break;
+        default:
+          return null;
+      }
+    }
+    in.skipBytes(2); // access flags
+    in.skipBytes(2); // this class
+    int superIndex = in.readUnsignedShort();
+    String superName = superIndex == 0 ? null : utf8[classNameIndexes[superIndex]];
+    String[] interfaceNames = new String[in.readUnsignedShort()];
+    for (int i = 0; i < interfaceNames.length; i++) {
+      interfaceNames[i] = utf8[classNameIndexes[in.readUnsignedShort()]];
+    }
+    return new ClassFileHeader(superName, interfaceNames);
+  }
+}
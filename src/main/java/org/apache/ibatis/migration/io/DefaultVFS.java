@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -49,6 +50,11 @@ public class DefaultVFS extends VFS {
     return true;
   }
 
+  @Override
+  protected boolean isParallel() {
+    return true;
+  }
+
   @Override
   public List<String> list(URL url, String path) throws IOException {
     InputStream is = null;
@@ -59,11 +65,16 @@ public class DefaultVFS extends VFS {
       // file is found, then we'll list child resources by reading the JAR.
       URL jarUrl = findJarForResource(url);
       if (jarUrl != null) {
-        is = jarUrl.openStream();
         if (log.isLoggable(Level.FINER)) {
           log.log(Level.FINER, "Listing " + url);
         }
-        resources = listResources(new JarInputStream(is), path);
+        File jarFile = toFile(jarUrl);
+        if (jarFile != null) {
+          resources = JarListingCache.INSTANCE.list(jarFile, path);
+        } else {
+          is = jarUrl.openStream();
+          resources = listResources(new JarInputStream(is), path);
+        }
       } else {
         List<String> children = new ArrayList<>();
         try {
@@ -208,6 +219,26 @@ public class DefaultVFS extends VFS {
     return resources;
   }
 
+  /**
+   * Returns the local file a {@code file:} URL points to, or null for any other URL.
+   *
+   * @param url
+   *          The URL of a JAR file
+   *
+   * @return the file
+   */
+  protected File toFile(URL url) {
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+    try {
+      File file = Path.of(url.toURI()).toFile();
+      return file.isFile() ? file : null;
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   /**
    * Attempts to deconstruct the given URL to find a JAR file containing the resource referenced by the URL. That is,
    * assuming the URL references a JAR entry, this method will return a URL that references the JAR file containing the
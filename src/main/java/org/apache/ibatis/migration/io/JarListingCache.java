@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * A process-wide, least recently used cache of the entry names of JAR files. A JAR is identified by its path, size
+ * and modification time, so a JAR that is replaced is read again.
+ */
+final class JarListingCache {
+
+  static final JarListingCache INSTANCE = new JarListingCache(64);
+
+  private final Map<Key, String[]> listings;
+
+  JarListingCache(int maximumSize) {
+    this.listings = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, String[]> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * @return The names of the files in the JAR that start with {@code path}, without a leading slash.
+   */
+  List<String> list(File jar, String path) throws IOException {
+    String prefix = path.startsWith("/") ? path.substring(1) : path;
+    if (!prefix.endsWith("/")) {
+      prefix = prefix + '/';
+    }
+    String[] names = getNames(jar);
+    int i = Arrays.binarySearch(names, prefix);
+    List<String> resources = new ArrayList<>();
+    for (i = i < 0 ? -(i + 1) : i; i < names.length && names[i].startsWith(prefix); i++) {
+      resources.add(names[i]);
+    }
+    return resources;
+  }
+
+  int size() {
+    synchronized (listings) {
+      return listings.size();
+    }
+  }
+
+  private String[] getNames(File jar) throws IOException {
+    Key key = new Key(jar.getAbsolutePath(), jar.length(), jar.lastModified());
+    synchronized (listings) {
+      String[] names = listings.get(key);
+      if (names != null) {
+        return names;
+      }
+    }
+    // Read outside the lock; a JAR listed by two threads at once is simply read twice.
+    String[] names = readNames(jar);
+    synchronized (listings) {
+      listings.put(key, names);
+    }
+    return names;
+  }
+
+  private static String[] readNames(File file) throws IOException {
+    List<String> names = new ArrayList<>();
+    try (JarFile jar = new JarFile(file, false)) {
+      for (Enumeration<JarEntry> entries = jar.entries(); entries.hasMoreElements();) {
+        JarEntry entry = entries.nextElement();
+        if (!entry.isDirectory()) {
+          String name = entry.getName();
+          names.add(name.startsWith("/") ? name.substring(1) : name);
+        }
+      }
+    }
+    String[] sorted = names.toArray(new String[0]);
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  private static final class Key {
+    private final String path;
+    private final long size;
+    private final long lastModified;
+
+    Key(String path, long size, long lastModified) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return size == other.size && lastModified == other.lastModified && path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, size, lastModified);
+    }
+  }
+}
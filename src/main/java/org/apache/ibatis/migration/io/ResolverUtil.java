@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>
@@ -75,13 +77,24 @@ public class ResolverUtil<T> {
   }
 
   /**
-   * A Test that checks to see if each class is assignable to the provided class. Note that this test will match the
-   * parent type itself if it is presented for matching.
+   * A Test that checks to see if each class is assignable to one of the provided classes. Note that this test will
+   * match a parent type itself if it is presented for matching.
+   * <p>
+   * Before a candidate class is loaded, the super class and interfaces named in its class file are followed up the
+   * hierarchy, so that classes that cannot match are never loaded.
    */
   public static class IsA implements Test {
 
-    /** The parent. */
-    private Class<?> parent;
+    private static final String OBJECT = "java/lang/Object";
+
+    /** The parents. */
+    private Class<?>[] parents;
+
+    /** Internal names of the parents. */
+    private Set<String> parentNames = new HashSet<>();
+
+    /** Whether a class, by internal name, may be assignable to a parent. */
+    private Map<String, Boolean> candidates = new ConcurrentHashMap<>();
 
     /**
      * Constructs an IsA test using the supplied Class as the parent class/interface.
@@ -90,18 +103,78 @@ public class ResolverUtil<T> {
      *          the parent type
      */
     public IsA(Class<?> parentType) {
-      this.parent = parentType;
+      this(new Class<?>[] { parentType });
     }
 
-    /** Returns true if type is assignable to the parent type supplied in the constructor. */
+    /**
+     * Constructs an IsA test matching classes assignable to any of the supplied classes/interfaces.
+     *
+     * @param parentTypes
+     *          the parent types
+     */
+    public IsA(Class<?>... parentTypes) {
+      this.parents = parentTypes.clone();
+      for (Class<?> parent : parents) {
+        parentNames.add(parent.getName().replace('.', '/'));
+      }
+    }
+
+    /** Returns true if type is assignable to one of the parent types supplied in the constructor. */
     @Override
     public boolean matches(Class<?> type) {
-      return type != null && parent.isAssignableFrom(type);
+      if (type == null) {
+        return false;
+      }
+      for (Class<?> parent : parents) {
+        if (parent.isAssignableFrom(type)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Checks the class file of a class before it is loaded.
+     *
+     * @param loader
+     *          the class loader the class would be loaded with
+     * @param internalName
+     *          the class name, with slashes instead of dots
+     *
+     * @return false if the class cannot match, true if it matches or its hierarchy could not be read
+     */
+    boolean mayMatch(ClassLoader loader, String internalName) {
+      if (parentNames.contains(internalName)) {
+        return true;
+      }
+      if (OBJECT.equals(internalName)) {
+        return false;
+      }
+      Boolean cached = candidates.get(internalName);
+      if (cached != null) {
+        return cached;
+      }
+      ClassFileHeader header = ClassFileHeader.read(loader, internalName);
+      boolean result = header == null || header.getSuperName() != null && mayMatch(loader, header.getSuperName());
+      if (!result) {
+        for (String interfaceName : header.getInterfaceNames()) {
+          if (mayMatch(loader, interfaceName)) {
+            result = true;
+            break;
+          }
+        }
+      }
+      candidates.put(internalName, result);
+      return result;
     }
 
     @Override
     public String toString() {
-      return "is assignable to " + parent.getSimpleName();
+      StringBuilder sb = new StringBuilder("is assignable to ");
+      for (int i = 0; i < parents.length; i++) {
+        sb.append(i == 0 ? "" : " or ").append(parents[i].getSimpleName());
+      }
+      return sb.toString();
     }
   }
 
@@ -279,8 +352,12 @@ public class ResolverUtil<T> {
   @SuppressWarnings("unchecked")
   protected void addIfMatching(Test test, String fqn) {
     try {
-      String externalName = fqn.substring(0, fqn.indexOf('.')).replace('/', '.');
+      String internalName = fqn.substring(0, fqn.indexOf('.'));
+      String externalName = internalName.replace('/', '.');
       ClassLoader loader = getClassLoader();
+      if (test instanceof IsA && !((IsA) test).mayMatch(loader, internalName)) {
+        return;
+      }
       // if (log.isDebugEnabled()) {
       // log.debug("Checking to see if class " + externalName + " matches criteria [" + test + "]");
       // }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.migration.io;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
@@ -218,6 +219,22 @@ public abstract class VFS {
    */
   protected abstract List<String> list(URL url, String forPath) throws IOException;
 
+  /**
+   * Get the URLs of the resources that {@link #list(String)} lists for the specified path, one for each class path
+   * entry that contains it.
+   *
+   * @param path
+   *          The resource path.
+   *
+   * @return A list of {@link URL}s, as returned by {@link ClassLoader#getResources(String)}.
+   *
+   * @throws IOException
+   *           If I/O errors occur
+   */
+  public List<URL> getRoots(String path) throws IOException {
+    return getResources(path);
+  }
+
   /**
    * Recursively list the full resource path of all the resources that are children of all the resources found at the
    * specified path.
@@ -231,10 +248,44 @@ public abstract class VFS {
    *           If I/O errors occur
    */
   public List<String> list(String path) throws IOException {
+    List<URL> urls = getResources(path);
     List<String> names = new ArrayList<>();
-    for (URL url : getResources(path)) {
-      names.addAll(list(url, path));
+    if (urls.size() < 2 || !isParallel()) {
+      for (URL url : urls) {
+        names.addAll(list(url, path));
+      }
+      return names;
+    }
+    // Class path entries are independent, so they are listed in parallel with the caller's context class loader.
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try {
+      urls.parallelStream().map(url -> list(url, path, contextClassLoader)).forEachOrdered(names::addAll);
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
     return names;
   }
+
+  private List<String> list(URL url, String path, ClassLoader contextClassLoader) {
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    thread.setContextClassLoader(contextClassLoader);
+    try {
+      return list(url, path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+
+  /**
+   * Return true if {@link #list(URL, String)} may be called concurrently, so that the resources found at a path are
+   * listed in parallel.
+   *
+   * @return true, if is parallel
+   */
+  protected boolean isParallel() {
+    return false;
+  }
 }
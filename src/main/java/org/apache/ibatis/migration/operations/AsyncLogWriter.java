@@ -0,0 +1,210 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Writer} that copies characters into a bounded ring buffer and writes them to the target from a background
+ * thread. The buffer is drained when it is half full or when the flush interval has passed since the first buffered
+ * character. Writers block when the buffer is full. {@link #flush()} waits until everything has been written.
+ * <p>
+ * Closing this writer flushes it but does not close the target.
+ */
+public class AsyncLogWriter extends Writer {
+
+  private static final int DEFAULT_CAPACITY = 64 * 1024;
+
+  private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 200;
+
+  private static class ExecutorHolder {
+    static final ScheduledThreadPoolExecutor INSTANCE = createExecutor();
+
+    static ScheduledThreadPoolExecutor createExecutor() {
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "migrations-log-writer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.setRemoveOnCancelPolicy(true);
+      return executor;
+    }
+  }
+
+  private final Writer target;
+  private final char[] ring;
+  private final char[] chunk;
+  private final int flushThreshold;
+  private final long flushIntervalMillis;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notFull = lock.newCondition();
+  private final Condition drained = lock.newCondition();
+
+  private int head;
+  private int size;
+  private boolean draining;
+  private boolean timerScheduled;
+  private boolean closed;
+  private IOException failure;
+
+  public AsyncLogWriter(Writer target) {
+    this(target, DEFAULT_CAPACITY, DEFAULT_FLUSH_INTERVAL_MILLIS);
+  }
+
+  public AsyncLogWriter(Writer target, int capacity, long flushIntervalMillis) {
+    if (capacity < 2) {
+      throw new IllegalArgumentException("capacity must be greater than 1.");
+    }
+    this.target = target;
+    this.ring = new char[capacity];
+    this.chunk = new char[capacity / 2];
+    this.flushThreshold = capacity / 2;
+    this.flushIntervalMillis = flushIntervalMillis;
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    lock.lock();
+    try {
+      ensureOpen();
+      while (len > 0) {
+        while (size == ring.length) {
+          startDrain();
+          notFull.awaitUninterruptibly();
+          checkFailure();
+        }
+        int tail = (head + size) % ring.length;
+        int count = Math.min(len, Math.min(ring.length - size, ring.length - tail));
+        System.arraycopy(cbuf, off, ring, tail, count);
+        size += count;
+        off += count;
+        len -= count;
+      }
+      if (size >= flushThreshold) {
+        startDrain();
+      } else if (!draining && !timerScheduled) {
+        timerScheduled = true;
+        ExecutorHolder.INSTANCE.schedule(this::timedDrain, flushIntervalMillis, TimeUnit.MILLISECONDS);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    lock.lock();
+    try {
+      checkFailure();
+      if (size > 0) {
+        startDrain();
+      }
+      while (draining) {
+        drained.awaitUninterruptibly();
+      }
+      checkFailure();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      flush();
+      closed = true;
+    }
+  }
+
+  private void ensureOpen() throws IOException {
+    if (closed) {
+      throw new IOException("Writer closed");
+    }
+    checkFailure();
+  }
+
+  private void checkFailure() throws IOException {
+    if (failure != null) {
+      IOException e = failure;
+      failure = null;
+      throw e;
+    }
+  }
+
+  private void startDrain() {
+    if (!draining) {
+      draining = true;
+      ExecutorHolder.INSTANCE.execute(this::drain);
+    }
+  }
+
+  private void timedDrain() {
+    lock.lock();
+    try {
+      timerScheduled = false;
+      if (size > 0) {
+        startDrain();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void drain() {
+    while (true) {
+      int count;
+      lock.lock();
+      try {
+        if (size == 0) {
+          draining = false;
+          drained.signalAll();
+          return;
+        }
+        count = Math.min(size, chunk.length);
+        int first = Math.min(count, ring.length - head);
+        System.arraycopy(ring, head, chunk, 0, first);
+        System.arraycopy(ring, 0, chunk, first, count - first);
+        head = (head + count) % ring.length;
+        size -= count;
+        notFull.signalAll();
+      } finally {
+        lock.unlock();
+      }
+      try {
+        target.write(chunk, 0, count);
+        target.flush();
+      } catch (IOException e) {
+        lock.lock();
+        try {
+          failure = e;
+          size = 0;
+          draining = false;
+          drained.signalAll();
+          notFull.signalAll();
+        } finally {
+          lock.unlock();
+        }
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.migration.Change;
+
+/**
+ * Compares the changelog with the migration scripts in a single pass over both lists.
+ * <p>
+ * Both lists must be sorted by {@link Change#compareTo(Change)}. The changelog entries can also be added one at a time
+ * as they are read, in which case the applied entries are only kept if requested.
+ */
+final class ChangelogDiff {
+
+  /**
+   * Receives the changelog entries and migration scripts in ID order as they are compared.
+   */
+  interface Listener {
+    void applied(Change changeInDb);
+
+    void pending(Change script);
+
+    void missing(Change changeInDb);
+  }
+
+  private final List<Change> migrations;
+  private final boolean retainApplied;
+  private Listener listener;
+
+  private final List<Change> applied = new ArrayList<>();
+  private final List<Change> appliedScripts = new ArrayList<>();
+  private final List<Change> pending = new ArrayList<>();
+  private final List<Change> skipped = new ArrayList<>();
+  private final List<Change> missing = new ArrayList<>();
+  private final StringBuilder warnings = new StringBuilder();
+  private final List<Change> gap = new ArrayList<>();
+  private int appliedCount;
+  private Change lastInDb;
+  private int m;
+
+  ChangelogDiff(List<Change> changelog, List<Change> migrations) {
+    this(migrations, true);
+    changelog.forEach(this::add);
+    finish();
+  }
+
+  ChangelogDiff(List<Change> migrations, boolean retainApplied) {
+    this.migrations = migrations;
+    this.retainApplied = retainApplied;
+  }
+
+  void setListener(Listener listener) {
+    this.listener = listener;
+  }
+
+  void add(Change changeInDb) {
+    String separator = System.lineSeparator();
+    lastInDb = changeInDb;
+    while (m < migrations.size() && migrations.get(m).compareTo(changeInDb) < 0) {
+      Change script = migrations.get(m++);
+      gap.add(script);
+      if (listener != null) {
+        listener.pending(script);
+      }
+    }
+    if (m < migrations.size() && migrations.get(m).compareTo(changeInDb) == 0) {
+      appliedCount++;
+      if (retainApplied) {
+        applied.add(changeInDb);
+        appliedScripts.add(migrations.get(m));
+      }
+      m++;
+      if (listener != null) {
+        listener.applied(changeInDb);
+      }
+      // Unapplied migration script(s) followed by an applied one.
+      for (Change change : gap) {
+        skipped.add(change);
+        pending.add(change);
+        warnings.append("WARNING: Migration script '").append(change.getFilename())
+            .append("' was not applied to the database.").append(separator);
+      }
+      gap.clear();
+    } else {
+      // no corresponding migration script.
+      missing.add(changeInDb);
+      if (listener != null) {
+        listener.missing(changeInDb);
+      }
+      warnings.append("WARNING: Missing migration script. id='").append(changeInDb.getId()).append("', description='")
+          .append(changeInDb.getDescription()).append("'.").append(separator);
+    }
+  }
+
+  /**
+   * Marks the end of the changelog.
+   */
+  void finish() {
+    pending.addAll(gap);
+    gap.clear();
+    while (m < migrations.size()) {
+      Change script = migrations.get(m++);
+      pending.add(script);
+      if (listener != null) {
+        listener.pending(script);
+      }
+    }
+  }
+
+  /**
+   * @return The changelog entries that have a migration script; empty if they are not retained.
+   */
+  List<Change> getApplied() {
+    return applied;
+  }
+
+  /**
+   * @return The migration scripts of the applied changes, in the same order as {@link #getApplied()}.
+   */
+  List<Change> getAppliedScripts() {
+    return appliedScripts;
+  }
+
+  int getAppliedCount() {
+    return appliedCount;
+  }
+
+  /**
+   * @return The last changelog entry; <code>null</code> if the changelog is empty.
+   */
+  Change getLastInDb() {
+    return lastInDb;
+  }
+
+  /**
+   * @return The migration scripts that are not in the changelog, including the skipped ones.
+   */
+  List<Change> getPending() {
+    return pending;
+  }
+
+  /**
+   * @return The pending migration scripts that are ordered before an applied one.
+   */
+  List<Change> getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * @return The changelog entries without a migration script.
+   */
+  List<Change> getMissing() {
+    return missing;
+  }
+
+  /**
+   * @return The warnings about skipped and missing migration scripts; empty if there are none.
+   */
+  String getWarnings() {
+    return warnings.toString();
+  }
+}
@@ -23,6 +23,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.ibatis.migration.Change;
 import org.apache.ibatis.migration.options.DatabaseOperationOption;
@@ -37,9 +38,45 @@ public class ChangelogOperation {
   }
 
   public boolean tableExists() {
-    try (Statement stmt = con.createStatement();
-        ResultSet rs = stmt.executeQuery("select count(1) from " + option.getChangelogTable())) {
-      return rs.next();
+    // A probe that returns no rows is cheaper than counting them on most databases.
+    try (Statement stmt = con.createStatement()) {
+      stmt.executeQuery("select ID from " + option.getChangelogTable() + " where 1 = 0").close();
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Checks in a single query whether the changelog has the same number of entries, the same last id, the same sum of
+   * ids and the same sum of squared ids as the given migration scripts.
+   *
+   * @param migrations
+   *          the migration scripts, ordered by id
+   *
+   * @return <code>true</code> if the changelog exists and matches; <code>false</code> otherwise.
+   */
+  public boolean isUpToDate(List<Change> migrations) {
+    if (migrations.isEmpty()) {
+      return false;
+    }
+    BigDecimal idSum = BigDecimal.ZERO;
+    BigDecimal squareSum = BigDecimal.ZERO;
+    for (Change migration : migrations) {
+      idSum = idSum.add(migration.getId());
+      squareSum = squareSum.add(migration.getId().multiply(migration.getId()));
+    }
+    BigDecimal lastId = migrations.get(migrations.size() - 1).getId();
+    try (Statement stmt = con.createStatement(); ResultSet rs = stmt
+        .executeQuery("select count(1), max(ID), sum(ID), sum(ID * ID) from " + option.getChangelogTable())) {
+      if (!rs.next()) {
+        return false;
+      }
+      BigDecimal maxId = rs.getBigDecimal(2);
+      BigDecimal sum = rs.getBigDecimal(3);
+      BigDecimal squares = rs.getBigDecimal(4);
+      return rs.getLong(1) == migrations.size() && maxId != null && maxId.compareTo(lastId) == 0
+          && sum.compareTo(idSum) == 0 && squares.compareTo(squareSum) == 0;
     } catch (SQLException e) {
       return false;
     }
@@ -47,23 +84,77 @@ public class ChangelogOperation {
 
   public List<Change> selectAll() throws SQLException {
     List<Change> changes = new ArrayList<>();
-    try (
-        PreparedStatement stmt = con
-            .prepareStatement("select ID, APPLIED_AT, DESCRIPTION from " + option.getChangelogTable() + " order by ID");
-        ResultSet rs = stmt.executeQuery()) {
+    forEach(changes::add);
+    return changes;
+  }
+
+  /**
+   * Passes the changelog entries ordered by ID to the consumer without keeping them.
+   * <p>
+   * If a page size is set, the changelog is read one page at a time, each page starting after the last ID of the
+   * previous one.
+   *
+   * @param consumer
+   *          the consumer of the changelog entries
+   *
+   * @throws SQLException
+   *           If the changelog cannot be read.
+   */
+  public void forEach(Consumer<Change> consumer) throws SQLException {
+    int pageSize = option.getChangelogPageSize();
+    String select = "select ID, APPLIED_AT, DESCRIPTION" + (option.isChangelogChecksum() ? ", CHECKSUM" : "")
+        + " from " + option.getChangelogTable();
+    BigDecimal lastId;
+    try (PreparedStatement stmt = con.prepareStatement(select + " order by ID")) {
+      lastId = selectPage(stmt, pageSize, consumer);
+    }
+    if (lastId == null) {
+      return;
+    }
+    try (PreparedStatement stmt = con.prepareStatement(select + " where ID > ? order by ID")) {
+      while (lastId != null) {
+        stmt.setBigDecimal(1, lastId);
+        lastId = selectPage(stmt, pageSize, consumer);
+      }
+    }
+  }
+
+  /**
+   * @return The last ID of a full page; <code>null</code> if this was the last page.
+   */
+  private BigDecimal selectPage(PreparedStatement stmt, int pageSize, Consumer<Change> consumer)
+      throws SQLException {
+    if (pageSize > 0) {
+      stmt.setMaxRows(pageSize);
+      stmt.setFetchSize(pageSize);
+    }
+    int rows = 0;
+    BigDecimal lastId = null;
+    try (ResultSet rs = stmt.executeQuery()) {
       while (rs.next()) {
-        changes.add(new Change(rs.getBigDecimal(1), rs.getString(2), rs.getString(3)));
+        Change change = new Change(rs.getBigDecimal(1), rs.getString(2), rs.getString(3));
+        if (option.isChangelogChecksum()) {
+          change.setChecksum(rs.getString(4));
+        }
+        lastId = change.getId();
+        rows++;
+        consumer.accept(change);
       }
-      return changes;
     }
+    return pageSize > 0 && rows == pageSize ? lastId : null;
   }
 
   public void insert(Change change) throws SQLException {
-    try (PreparedStatement stmt = con.prepareStatement(
-        "insert into " + option.getChangelogTable() + " (ID, APPLIED_AT, DESCRIPTION) values (?,?,?)")) {
+    boolean checksum = option.isChangelogChecksum();
+    try (PreparedStatement stmt = con.prepareStatement("insert into " + option.getChangelogTable()
+        + (checksum ? " (ID, APPLIED_AT, DESCRIPTION, CHECKSUM) values (?,?,?,?)"
+            : " (ID, APPLIED_AT, DESCRIPTION) values (?,?,?)"))) {
       stmt.setBigDecimal(1, change.getId());
       stmt.setString(2, change.getAppliedTimestamp());
       stmt.setString(3, change.getDescription());
+      if (checksum) {
+        stmt.setString(4, change.getChecksum());
+      }
       stmt.execute();
       con.commit();
     }
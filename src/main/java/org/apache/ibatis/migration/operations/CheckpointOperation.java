@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.MigrationException;
+
+/**
+ * Records the last committed statement of a running migration in the checkpoint table, so that an interrupted
+ * migration can be resumed after that statement.
+ * <p>
+ * The table has the columns ID, CHECKSUM and STATEMENT_INDEX. A checkpoint is only used if the checksum of the script
+ * has not changed.
+ */
+final class CheckpointOperation implements StatementListener {
+  private final Connection con;
+  private final String table;
+
+  private Change change;
+  private String checksum;
+  private boolean saved;
+
+  CheckpointOperation(Connection con, String table) {
+    this.con = con;
+    this.table = table;
+  }
+
+  /**
+   * Starts recording the statements of the given migration.
+   *
+   * @return The index of the last statement committed by an earlier run of the same script; <code>0</code> if there is
+   *         none or the checkpoint table does not exist yet, in which case the migration is not recorded.
+   */
+  int start(Change change, String checksum) throws SQLException {
+    if (!tableExists()) {
+      abort();
+      return 0;
+    }
+    this.change = change;
+    this.checksum = checksum;
+    try (PreparedStatement stmt = con
+        .prepareStatement("select CHECKSUM, STATEMENT_INDEX from " + table + " where ID = ?")) {
+      stmt.setBigDecimal(1, change.getId());
+      try (ResultSet rs = stmt.executeQuery()) {
+        saved = rs.next();
+        return saved && checksum.equals(rs.getString(1)) ? rs.getInt(2) : 0;
+      }
+    }
+  }
+
+  /**
+   * Removes the checkpoint of the migration once it has been applied.
+   */
+  void finish() throws SQLException {
+    if (saved) {
+      delete(change.getId());
+      if (!con.getAutoCommit()) {
+        con.commit();
+      }
+    }
+    change = null;
+    saved = false;
+  }
+
+  /**
+   * Stops recording without removing the checkpoint, so that the failed migration can be resumed by the next run.
+   * Statements executed afterwards, such as those of the onabort script, are not recorded.
+   */
+  void abort() {
+    change = null;
+    saved = false;
+  }
+
+  @Override
+  public void statementExecuted(ExecutedStatement statement) {
+    if (change == null) {
+      return;
+    }
+    int index = statement.getIndex() + statement.getStatementCount() - 1;
+    try {
+      if (saved) {
+        update(index);
+      } else {
+        insert(index);
+        saved = true;
+      }
+    } catch (SQLException e) {
+      throw new MigrationException("Error saving checkpoint of " + change.getFilename() + ".  Cause: " + e, e);
+    }
+  }
+
+  private boolean tableExists() {
+    // The table is usually created by the first migration, like the changelog.
+    try (Statement stmt = con.createStatement()) {
+      stmt.executeQuery("select ID from " + table + " where 1 = 0").close();
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void insert(int index) throws SQLException {
+    try (PreparedStatement stmt = con
+        .prepareStatement("insert into " + table + " (ID, CHECKSUM, STATEMENT_INDEX) values (?,?,?)")) {
+      stmt.setBigDecimal(1, change.getId());
+      stmt.setString(2, checksum);
+      stmt.setInt(3, index);
+      stmt.execute();
+    }
+  }
+
+  private void update(int index) throws SQLException {
+    try (PreparedStatement stmt = con
+        .prepareStatement("update " + table + " set CHECKSUM = ?, STATEMENT_INDEX = ? where ID = ?")) {
+      stmt.setString(1, checksum);
+      stmt.setInt(2, index);
+      stmt.setBigDecimal(3, change.getId());
+      stmt.execute();
+    }
+  }
+
+  private void delete(BigDecimal id) throws SQLException {
+    try (PreparedStatement stmt = con.prepareStatement("delete from " + table + " where ID = ?")) {
+      stmt.setBigDecimal(1, id);
+      stmt.execute();
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package org.apache.ibatis.migration.operations;
 
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.sql.Connection;
@@ -47,39 +48,44 @@ public abstract class DatabaseOperation {
     }
   }
 
+  /**
+   * Passes the changelog to the diff as it is read, without keeping the whole changelog in memory.
+   */
+  void readChangelog(Connection con, DatabaseOperationOption option, ChangelogDiff diff) {
+    try {
+      ChangelogOperation operation = new ChangelogOperation(con, option);
+      operation.forEach(diff::add);
+      diff.finish();
+    } catch (SQLException e) {
+      throw new MigrationException("Error querying last applied migration.  Cause: " + e, e);
+    }
+  }
+
   protected boolean changelogExists(Connection con, DatabaseOperationOption option) {
     ChangelogOperation operation = new ChangelogOperation(con, option);
     return operation.tableExists();
   }
 
+  /**
+   * Checks whether every migration script has been applied without reading the whole changelog.
+   * <p>
+   * The number of entries, the last id, the sum of ids and the sum of squared ids are compared, so a changelog with a
+   * skipped script and a missing one falls back to the full diff and its warnings.
+   */
+  protected boolean isUpToDate(Connection con, DatabaseOperationOption option, List<Change> migrations) {
+    ChangelogOperation operation = new ChangelogOperation(con, option);
+    return operation.isUpToDate(migrations);
+  }
+
   protected String checkSkippedOrMissing(List<Change> changesInDb, List<Change> migrations) {
-    StringBuilder warnings = new StringBuilder();
-    String separator = System.lineSeparator();
-    int adjust = 0;
-    for (int i = 0; i < changesInDb.size(); i++) {
-      Change changeInDb = changesInDb.get(i);
-      int migrationIndex = migrations.indexOf(changeInDb);
-      if (migrationIndex == -1) {
-        // no corresponding migration script.
-        warnings.append("WARNING: Missing migration script. id='").append(changeInDb.getId()).append("', description='")
-            .append(changeInDb.getDescription()).append("'.").append(separator);
-        adjust++;
-      } else if (migrationIndex != i - adjust) {
-        // Unapplied migration script(s).
-        for (int j = i - adjust; j < migrationIndex; j++) {
-          adjust--;
-          warnings.append("WARNING: Migration script '").append(migrations.get(j).getFilename())
-              .append("' was not applied to the database.").append(separator);
-        }
-      }
-    }
-    return warnings.toString();
+    return new ChangelogDiff(changesInDb, migrations).getWarnings();
   }
 
   protected ScriptRunner getScriptRunner(Connection connection, DatabaseOperationOption option,
       PrintStream printStream) {
     try {
-      PrintWriter outWriter = printStream == null ? null : new PrintWriter(printStream);
+      PrintWriter outWriter = printStream == null ? null
+          : new PrintWriter(new AsyncLogWriter(new OutputStreamWriter(printStream)));
       ScriptRunner scriptRunner = new ScriptRunner(connection);
       scriptRunner.setLogWriter(outWriter);
       scriptRunner.setErrorLogWriter(outWriter);
@@ -89,8 +95,17 @@ public abstract class DatabaseOperation {
       scriptRunner.setAutoCommit(option.isAutoCommit());
       scriptRunner.setDelimiter(option.getDelimiter());
       scriptRunner.setFullLineDelimiter(option.isFullLineDelimiter());
+      scriptRunner.setBackslashEscapes(option.isBackslashEscapes());
       scriptRunner.setSendFullScript(option.isSendFullScript());
       scriptRunner.setRemoveCRs(option.isRemoveCRs());
+      scriptRunner.setBatchSize(option.getBatchSize());
+      scriptRunner.setStatementTimeout(option.getStatementTimeout());
+      scriptRunner.setMigrationTimeout(option.getMigrationTimeout());
+      scriptRunner.setEchoInterval(option.getEchoInterval());
+      scriptRunner.setParseAhead(option.getParseAhead());
+      if (option.getStatementListener() != null) {
+        scriptRunner.addStatementListener(option.getStatementListener());
+      }
       return scriptRunner;
     } catch (Exception e) {
       throw new MigrationException("Error creating ScriptRunner.  Cause: " + e, e);
@@ -19,6 +19,7 @@ import java.io.PrintStream;
 import java.io.Reader;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -51,28 +52,37 @@ public final class DownOperation extends DatabaseOperation {
 
   public DownOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
       DatabaseOperationOption option, PrintStream printStream, MigrationHook hook) {
-    try (Connection con = connectionProvider.getConnection()) {
+    try (OperationContext context = OperationContext.open(connectionProvider, migrationsLoader)) {
+      return operate(context, connectionProvider, migrationsLoader, option, printStream, hook);
+    } catch (SQLException e) {
+      throw new MigrationException("Error undoing last migration.  Cause: " + e, e);
+    }
+  }
+
+  DownOperation operate(OperationContext context, ConnectionProvider connectionProvider,
+      MigrationLoader migrationsLoader, DatabaseOperationOption option, PrintStream printStream, MigrationHook hook) {
+    try {
       if (option == null) {
         option = new DatabaseOperationOption();
       }
-      List<Change> changesInDb = List.of();
-      if (changelogExists(con, option)) {
-        changesInDb = getChangelog(con, option);
-      }
+      Connection con = context.getConnection();
+      List<Change> changesInDb = context.loadChangelog(option);
       if (changesInDb.isEmpty()) {
         println(printStream, "Changelog exist, but no migration found.");
       } else {
-        List<Change> migrations = migrationsLoader.getMigrations();
-        migrations.sort(null);
-        String skippedOrMissing = checkSkippedOrMissing(changesInDb, migrations);
+        String skippedOrMissing = checkSkippedOrMissing(changesInDb, context.getMigrations());
+        List<Change> migrations = new ArrayList<>(context.getMigrations());
         Collections.reverse(migrations);
         int stepCount = 0;
         ScriptRunner runner = getScriptRunner(con, option, printStream);
+        ExecutionReport report = new ExecutionReport(option.getSlowStatementThreshold());
+        runner.addStatementListener(report);
 
         Map<String, Object> hookBindings = new HashMap<>();
 
         for (Change change : migrations) {
           if (change.equals(changesInDb.get(changesInDb.size() - 1))) {
+            report.setScript(change.getFilename());
             if (stepCount == 0 && hook != null) {
               hookBindings.put(MigrationHook.HOOK_CONTEXT, new HookContext(connectionProvider, runner, null));
               hook.before(hookBindings);
@@ -88,7 +98,9 @@ public final class DownOperation extends DatabaseOperation {
             }
             if (changelogExists(con, option)) {
               deleteChange(con, change, option);
+              context.undone(change);
             } else {
+              context.changelogDropped();
               println(printStream,
                   "Changelog doesn't exist. No further migrations will be undone (normal for the last migration).");
               stepCount = steps;
@@ -100,16 +112,18 @@ public final class DownOperation extends DatabaseOperation {
               hook.afterEach(hookBindings);
             }
             stepCount++;
-            if (steps == null || stepCount >= steps) {
+            if (steps == null || stepCount >= steps || changesInDb.isEmpty()) {
               break;
             }
-            changesInDb.remove(changesInDb.size() - 1);
           }
         }
         if (stepCount > 0 && hook != null) {
           hookBindings.put(MigrationHook.HOOK_CONTEXT, new HookContext(connectionProvider, runner, null));
           hook.after(hookBindings);
         }
+        if (stepCount > 0) {
+          println(printStream, report.summary());
+        }
         println(printStream, skippedOrMissing);
       }
       return this;
@@ -0,0 +1,65 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+/**
+ * Timing and result of a statement executed by {@link ScriptRunner}. When statements are sent in a JDBC batch, one
+ * instance describes the whole batch and {@link #getSql()} returns its first statement.
+ */
+public class ExecutedStatement {
+  private final int index;
+  private final int statementCount;
+  private final String sql;
+  private final long elapsedMillis;
+  private final long updateCount;
+
+  public ExecutedStatement(int index, int statementCount, String sql, long elapsedMillis, long updateCount) {
+    this.index = index;
+    this.statementCount = statementCount;
+    this.sql = sql;
+    this.elapsedMillis = elapsedMillis;
+    this.updateCount = updateCount;
+  }
+
+  /**
+   * @return The 1-based position of the statement in the script.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return The number of statements executed; greater than one for a JDBC batch.
+   */
+  public int getStatementCount() {
+    return statementCount;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * @return The number of rows affected, or <code>-1</code> if the driver did not report it.
+   */
+  public long getUpdateCount() {
+    return updateCount;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects statement statistics during an operation and builds the summary printed at its end. Statements that take at
+ * least the configured threshold, and statements cancelled by a timeout, are listed with the script they belong to.
+ */
+class ExecutionReport implements StatementListener {
+  private static final int MAX_SQL_LENGTH = 60;
+
+  private final long slowStatementThreshold;
+  private final List<String> slowStatements = new ArrayList<>();
+  private final List<String> timedOutStatements = new ArrayList<>();
+
+  private String script;
+  private int statementCount;
+  private long updateCount;
+  private long elapsedMillis;
+
+  ExecutionReport(long slowStatementThreshold) {
+    this.slowStatementThreshold = slowStatementThreshold;
+  }
+
+  void setScript(String script) {
+    this.script = script;
+  }
+
+  @Override
+  public void statementExecuted(ExecutedStatement statement) {
+    statementCount += statement.getStatementCount();
+    elapsedMillis += statement.getElapsedMillis();
+    if (statement.getUpdateCount() > 0) {
+      updateCount += statement.getUpdateCount();
+    }
+    if (slowStatementThreshold > 0 && statement.getElapsedMillis() >= slowStatementThreshold) {
+      slowStatements.add("  " + script + " #" + statement.getIndex() + " " + statement.getElapsedMillis() + " ms: "
+          + abbreviate(statement.getSql()));
+    }
+  }
+
+  @Override
+  public void statementTimedOut(ExecutedStatement statement) {
+    timedOutStatements.add("  " + script + " #" + statement.getIndex() + " cancelled after "
+        + statement.getElapsedMillis() + " ms: " + abbreviate(statement.getSql()));
+  }
+
+  String summary() {
+    StringBuilder builder = new StringBuilder();
+    String separator = System.lineSeparator();
+    builder.append("Executed ").append(statementCount).append(" statement(s) in ").append(elapsedMillis)
+        .append(" ms, ").append(updateCount).append(" row(s) affected.");
+    if (!slowStatements.isEmpty()) {
+      builder.append(separator).append("Slow statements (").append(slowStatementThreshold).append(" ms or more):");
+      for (String slowStatement : slowStatements) {
+        builder.append(separator).append(slowStatement);
+      }
+    }
+    if (!timedOutStatements.isEmpty()) {
+      builder.append(separator).append("Timed out statements:");
+      for (String timedOutStatement : timedOutStatements) {
+        builder.append(separator).append(timedOutStatement);
+      }
+    }
+    return builder.toString();
+  }
+
+  private static String abbreviate(String sql) {
+    if (sql == null) {
+      return "";
+    }
+    String text = sql.trim().replaceAll("\\s+", " ");
+    return text.length() > MAX_SQL_LENGTH ? text.substring(0, MAX_SQL_LENGTH) + "..." : text;
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.ConnectionProvider;
+import org.apache.ibatis.migration.MigrationLoader;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+
+/**
+ * State shared by operations that run one after another within a single command.
+ * <p>
+ * It holds the open connection, the sorted migration scripts and, if it has been loaded, a snapshot of the changelog
+ * that the operations keep up to date as they apply and undo migrations.
+ */
+final class OperationContext implements AutoCloseable {
+
+  private final Connection connection;
+  private final List<Change> migrations;
+  private List<Change> changelog;
+
+  private OperationContext(Connection connection, List<Change> migrations) {
+    this.connection = connection;
+    this.migrations = migrations;
+  }
+
+  /**
+   * Opens a connection and loads the migration scripts.
+   */
+  static OperationContext open(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader)
+      throws SQLException {
+    Connection connection = connectionProvider.getConnection();
+    try {
+      List<Change> migrations = migrationsLoader.getMigrations();
+      migrations.sort(null);
+      return new OperationContext(connection, migrations);
+    } catch (RuntimeException e) {
+      connection.close();
+      throw e;
+    }
+  }
+
+  Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * @return The migration scripts sorted by ID. The list must not be reordered.
+   */
+  List<Change> getMigrations() {
+    return migrations;
+  }
+
+  /**
+   * @return The changelog snapshot; <code>null</code> if it has not been loaded.
+   */
+  List<Change> getChangelog() {
+    return changelog;
+  }
+
+  /**
+   * Loads the changelog snapshot unless it has already been loaded.
+   *
+   * @return The changelog snapshot; empty if the changelog table does not exist.
+   */
+  List<Change> loadChangelog(DatabaseOperationOption option) throws SQLException {
+    if (changelog == null) {
+      ChangelogOperation operation = new ChangelogOperation(connection, option);
+      changelog = operation.tableExists() ? operation.selectAll() : new ArrayList<>();
+    }
+    return changelog;
+  }
+
+  void applied(Change change) {
+    if (changelog != null) {
+      changelog.add(change);
+    }
+  }
+
+  void undone(Change change) {
+    if (changelog != null) {
+      int index = changelog.lastIndexOf(change);
+      if (index > -1) {
+        changelog.remove(index);
+      }
+    }
+  }
+
+  void changelogDropped() {
+    if (changelog != null) {
+      changelog.clear();
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    connection.close();
+  }
+}
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parses a script on a background thread, a bounded number of statements ahead of the thread that executes them.
+ * <p>
+ * The tokens are passed through a single-producer single-consumer ring buffer without locks. A side that has to wait
+ * parks briefly and is woken up by the other side. Parse errors are rethrown by {@link #next()} after the tokens that
+ * preceded them, so they surface at the same statement as when parsing inline.
+ */
+final class ParseAheadQueue implements StatementSource, AutoCloseable {
+
+  private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private static final class Item {
+    private final ScriptParser.Token token;
+    private final String delimiter;
+    private final String unterminatedStatement;
+    private final Throwable error;
+
+    Item(ScriptParser.Token token, String delimiter, String unterminatedStatement, Throwable error) {
+      this.token = token;
+      this.delimiter = delimiter;
+      this.unterminatedStatement = unterminatedStatement;
+      this.error = error;
+    }
+  }
+
+  private final ScriptParser parser;
+  private final Item[] items;
+  private final AtomicLong head = new AtomicLong();
+  private final AtomicLong tail = new AtomicLong();
+  private final Thread producer;
+  private volatile Thread consumer;
+  private volatile boolean producerWaiting;
+  private volatile boolean closed;
+
+  private String delimiter;
+  private String unterminatedStatement;
+  private boolean ended;
+
+  ParseAheadQueue(ScriptParser parser, int capacity) {
+    this.parser = parser;
+    this.items = new Item[Math.max(1, capacity)];
+    this.delimiter = parser.getDelimiter();
+    this.producer = new Thread(this::parse, "migrations-parser");
+    producer.setDaemon(true);
+    producer.start();
+  }
+
+  @Override
+  public ScriptParser.Token next() throws IOException {
+    if (ended) {
+      return null;
+    }
+    Item item = take();
+    if (item.error != null) {
+      ended = true;
+      if (item.error instanceof IOException) {
+        throw (IOException) item.error;
+      }
+      if (item.error instanceof RuntimeException) {
+        throw (RuntimeException) item.error;
+      }
+      throw new IOException(item.error);
+    }
+    delimiter = item.delimiter;
+    if (item.token == null) {
+      ended = true;
+      unterminatedStatement = item.unterminatedStatement;
+    }
+    return item.token;
+  }
+
+  @Override
+  public String getDelimiter() {
+    return delimiter;
+  }
+
+  @Override
+  public String getUnterminatedStatement() {
+    return unterminatedStatement;
+  }
+
+  /**
+   * Stops parsing and waits for the parser thread, so that the script reader can be closed safely.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    LockSupport.unpark(producer);
+    boolean interrupted = false;
+    while (producer.isAlive()) {
+      try {
+        producer.join();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void parse() {
+    try {
+      for (ScriptParser.Token token; (token = parser.next()) != null;) {
+        if (!put(new Item(token, parser.getDelimiter(), null, null))) {
+          return;
+        }
+      }
+      put(new Item(null, parser.getDelimiter(), parser.getUnterminatedStatement(), null));
+    } catch (Throwable e) {
+      put(new Item(null, parser.getDelimiter(), null, e));
+    }
+  }
+
+  private boolean put(Item item) {
+    long t = tail.get();
+    if (t - head.get() == items.length) {
+      producerWaiting = true;
+      while (t - head.get() == items.length) {
+        if (closed) {
+          return false;
+        }
+        LockSupport.parkNanos(this, PARK_NANOS);
+      }
+      producerWaiting = false;
+    }
+    items[(int) (t % items.length)] = item;
+    tail.lazySet(t + 1);
+    Thread waiting = consumer;
+    if (waiting != null) {
+      LockSupport.unpark(waiting);
+    }
+    return !closed;
+  }
+
+  private Item take() {
+    long h = head.get();
+    if (h == tail.get()) {
+      consumer = Thread.currentThread();
+      while (h == tail.get()) {
+        LockSupport.parkNanos(this, PARK_NANOS);
+      }
+      consumer = null;
+    }
+    int index = (int) (h % items.length);
+    Item item = items[index];
+    items[index] = null;
+    head.lazySet(h + 1);
+    if (producerWaiting) {
+      LockSupport.unpark(producer);
+    }
+    return item;
+  }
+}
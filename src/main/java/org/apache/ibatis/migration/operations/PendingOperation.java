@@ -18,7 +18,6 @@ package org.apache.ibatis.migration.operations;
 import java.io.PrintStream;
 import java.io.Reader;
 import java.sql.Connection;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -68,6 +67,9 @@ public final class PendingOperation extends DatabaseOperation {
           try (Reader scriptReader = migrationsLoader.getScriptReader(change, false)) {
             runner.runScript(scriptReader);
           }
+          if (option.isChangelogChecksum()) {
+            change.setChecksum(migrationsLoader.getChecksum(change));
+          }
           insertChangelog(change, con, option);
           println(printStream);
           if (hook != null) {
@@ -95,16 +97,9 @@ public final class PendingOperation extends DatabaseOperation {
 
   private List<Change> getPendingChanges(Connection con, MigrationLoader migrationsLoader,
       DatabaseOperationOption option) {
-    List<Change> pending = new ArrayList<>();
     List<Change> migrations = migrationsLoader.getMigrations();
+    migrations.sort(null);
     List<Change> changelog = getChangelog(con, option);
-    for (Change change : migrations) {
-      int index = changelog.indexOf(change);
-      if (index < 0) {
-        pending.add(change);
-      }
-    }
-    pending.sort(null);
-    return pending;
+    return new ChangelogDiff(changelog, migrations).getPending();
   }
 }
@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+
+import org.apache.ibatis.migration.ConnectionProvider;
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.MigrationLoader;
+import org.apache.ibatis.migration.hook.MigrationHook;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+
+/**
+ * Undoes and reapplies the last migrations using one connection, one load of the scripts and one changelog query.
+ */
+public final class RedoOperation extends DatabaseOperation {
+  private final int steps;
+
+  public RedoOperation(int steps) {
+    this.steps = steps;
+    if (steps < 1) {
+      throw new IllegalArgumentException("step must be positive number.");
+    }
+  }
+
+  public RedoOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
+      DatabaseOperationOption option, PrintStream printStream) {
+    return operate(connectionProvider, migrationsLoader, option, printStream, null, null);
+  }
+
+  public RedoOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
+      DatabaseOperationOption option, PrintStream printStream, MigrationHook downHook, MigrationHook upHook) {
+    if (option == null) {
+      option = new DatabaseOperationOption();
+    }
+    try (OperationContext context = OperationContext.open(connectionProvider, migrationsLoader)) {
+      new DownOperation(steps).operate(context, connectionProvider, migrationsLoader, option, printStream, downHook);
+      new UpOperation(steps).operate(context, connectionProvider, migrationsLoader, option, printStream, upHook);
+      return this;
+    } catch (SQLException e) {
+      throw new MigrationException("Error creating connection.  Cause: " + e, e);
+    }
+  }
+}
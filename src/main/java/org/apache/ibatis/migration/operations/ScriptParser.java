@@ -0,0 +1,416 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a SQL script into statements in a single pass over a reusable character buffer.
+ * <p>
+ * Delimiters are ignored inside string literals, quoted identifiers, comments and PostgreSQL dollar-quoted strings.
+ * If enabled, a backslash escapes the next character inside single- and double-quoted strings, as in MySQL.
+ * Lines starting with {@code --} or {@code //} are returned as comment tokens and the {@code @DELIMITER} directive
+ * takes effect as soon as it is read. Blank lines and comments that are not part of a statement are dropped.
+ */
+final class ScriptParser implements StatementSource {
+
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
+  private static final Pattern DELIMITER_PATTERN = Pattern
+      .compile("^\\s*((--)|(//))?\\s*(//)?\\s*@DELIMITER\\s+([^\\s]+)", Pattern.CASE_INSENSITIVE);
+
+  private enum State {
+    CODE,
+
+    LINE_COMMENT,
+
+    BLOCK_COMMENT,
+
+    SINGLE_QUOTE,
+
+    DOUBLE_QUOTE,
+
+    BACKTICK,
+
+    DOLLAR_QUOTE
+  }
+
+  private enum LineKind {
+    START,
+
+    COMMENT_PREFIX,
+
+    COMMENT,
+
+    CODE
+  }
+
+  static final class Token {
+    private final boolean comment;
+    private final String text;
+
+    Token(boolean comment, String text) {
+      this.comment = comment;
+      this.text = text;
+    }
+
+    boolean isComment() {
+      return comment;
+    }
+
+    String getText() {
+      return text;
+    }
+  }
+
+  private final Reader reader;
+  private final boolean fullLineDelimiter;
+  private final boolean backslashEscapes;
+  private final char[] buf = new char[8192];
+  private int pos;
+  private int limit;
+  private boolean eof;
+
+  private String delimiter;
+
+  private final StringBuilder statement = new StringBuilder();
+  private State state = State.CODE;
+  private LineKind lineKind = LineKind.START;
+  private int lineStart;
+  private int codeStart;
+  private boolean hasContent;
+  private boolean hadContent;
+  private char previousChar;
+  private boolean afterCR;
+
+  private int dollarTagStart = -1;
+  private String dollarTag;
+  private int dollarBodyStart;
+
+  private Token pending;
+
+  ScriptParser(Reader reader, String delimiter, boolean fullLineDelimiter) {
+    this(reader, delimiter, fullLineDelimiter, false);
+  }
+
+  ScriptParser(Reader reader, String delimiter, boolean fullLineDelimiter, boolean backslashEscapes) {
+    this.reader = reader;
+    this.delimiter = delimiter;
+    this.fullLineDelimiter = fullLineDelimiter;
+    this.backslashEscapes = backslashEscapes;
+  }
+
+  @Override
+  public Token next() throws IOException {
+    while (pending == null) {
+      if (pos >= limit) {
+        if (eof) {
+          return null;
+        }
+        fill();
+        continue;
+      }
+      accept(buf[pos++]);
+    }
+    Token token = pending;
+    pending = null;
+    return token;
+  }
+
+  /**
+   * @return The current delimiter, which may have been changed by an {@code @DELIMITER} directive.
+   */
+  @Override
+  public String getDelimiter() {
+    return delimiter;
+  }
+
+  @Override
+  public String getUnterminatedStatement() {
+    return hasContent ? statement.toString() : null;
+  }
+
+  private void fill() throws IOException {
+    pos = 0;
+    limit = reader.read(buf, 0, buf.length);
+    if (limit == -1) {
+      limit = 0;
+      eof = true;
+      if (statement.length() > lineStart || lineKind != LineKind.START) {
+        endOfLine();
+      }
+    }
+  }
+
+  private void accept(char c) {
+    if (c == '\n') {
+      if (!afterCR) {
+        endOfLine();
+      }
+      afterCR = false;
+      return;
+    }
+    afterCR = c == '\r';
+    if (afterCR) {
+      endOfLine();
+      return;
+    }
+    statement.append(c);
+    switch (state) {
+      case CODE:
+        acceptCode(c);
+        return;
+      case BLOCK_COMMENT:
+        if (c == '/' && previousChar == '*') {
+          enterCode();
+          return;
+        }
+        break;
+      case SINGLE_QUOTE:
+      case DOUBLE_QUOTE:
+        if (backslashEscapes && previousChar == '\\') {
+          // The escaped character cannot close the literal or escape the next one.
+          previousChar = 0;
+          return;
+        }
+        if (c == (state == State.SINGLE_QUOTE ? '\'' : '"')) {
+          enterCode();
+          return;
+        }
+        break;
+      case BACKTICK:
+        if (c == '`') {
+          enterCode();
+          return;
+        }
+        break;
+      case DOLLAR_QUOTE:
+        if (c == '$' && statement.length() - dollarTag.length() >= dollarBodyStart && endsWith(dollarTag)) {
+          enterCode();
+          return;
+        }
+        break;
+      default:
+        break;
+    }
+    previousChar = c;
+  }
+
+  private void acceptCode(char c) {
+    if (!hasContent && lineKind == LineKind.CODE && statement.length() == 1 && Character.isWhitespace(c)) {
+      // Drop the whitespace after a delimiter in the middle of a line.
+      statement.setLength(0);
+      return;
+    }
+    if (lineKind == LineKind.START) {
+      if (!Character.isWhitespace(c)) {
+        lineKind = c == '-' || c == '/' ? LineKind.COMMENT_PREFIX : LineKind.CODE;
+      }
+    } else if (lineKind == LineKind.COMMENT_PREFIX) {
+      if (c == previousChar) {
+        // The whole line is a comment; it is returned as a separate token.
+        lineKind = LineKind.COMMENT;
+        hasContent = hadContent;
+        state = State.LINE_COMMENT;
+        return;
+      }
+      lineKind = LineKind.CODE;
+    }
+    if (!fullLineDelimiter && statement.length() - delimiter.length() >= codeStart && endsWith(delimiter)) {
+      statement.setLength(statement.length() - delimiter.length());
+      statement.append(LINE_SEPARATOR);
+      emitStatement(LineKind.CODE);
+      return;
+    }
+    if (dollarTagStart > -1 && c != '$' && !isDollarTagChar(c)) {
+      dollarTagStart = -1;
+    }
+    switch (c) {
+      case '\'':
+        enterQuote(State.SINGLE_QUOTE);
+        return;
+      case '"':
+        enterQuote(State.DOUBLE_QUOTE);
+        return;
+      case '`':
+        enterQuote(State.BACKTICK);
+        return;
+      case '-':
+        if (previousChar == '-') {
+          hasContent = hadContent;
+          state = State.LINE_COMMENT;
+          return;
+        }
+        break;
+      case '*':
+        if (previousChar == '/') {
+          hasContent = hadContent;
+          state = State.BLOCK_COMMENT;
+          previousChar = 0;
+          return;
+        }
+        break;
+      case '$':
+        if (acceptDollar()) {
+          return;
+        }
+        break;
+      default:
+        break;
+    }
+    if (!Character.isWhitespace(c)) {
+      hadContent = hasContent;
+      hasContent = true;
+    }
+    previousChar = c;
+  }
+
+  private boolean acceptDollar() {
+    if (delimiter.indexOf('$') > -1) {
+      return false;
+    }
+    if (dollarTagStart > -1) {
+      dollarTag = statement.substring(dollarTagStart);
+      dollarTagStart = -1;
+      dollarBodyStart = statement.length();
+      enterQuote(State.DOLLAR_QUOTE);
+      return true;
+    }
+    if (!Character.isLetterOrDigit(previousChar) && previousChar != '_' && previousChar != '$') {
+      dollarTagStart = statement.length() - 1;
+    }
+    return false;
+  }
+
+  private boolean isDollarTagChar(char c) {
+    if (Character.isLetter(c) || c == '_') {
+      return true;
+    }
+    // A tag cannot start with a digit ($1 is a positional parameter).
+    return Character.isDigit(c) && dollarTagStart > -1 && statement.length() - 1 > dollarTagStart + 1;
+  }
+
+  private void enterQuote(State quote) {
+    hadContent = hasContent;
+    hasContent = true;
+    state = quote;
+    previousChar = 0;
+  }
+
+  private void enterCode() {
+    state = State.CODE;
+    codeStart = statement.length();
+    previousChar = 0;
+  }
+
+  private void endOfLine() {
+    if (state == State.LINE_COMMENT) {
+      state = State.CODE;
+    }
+    if (state != State.CODE) {
+      // Line breaks inside literals and block comments are part of the statement.
+      statement.append(LINE_SEPARATOR);
+      lineStart = statement.length();
+      lineKind = LineKind.CODE;
+      previousChar = 0;
+      return;
+    }
+    if (lineKind == LineKind.COMMENT) {
+      String comment = statement.substring(lineStart).trim();
+      statement.setLength(lineStart);
+      Matcher matcher = DELIMITER_PATTERN.matcher(comment);
+      if (matcher.find()) {
+        delimiter = matcher.group(5);
+      }
+      pending = new Token(true, comment);
+    } else if (fullLineDelimiter && isDelimiterLine()) {
+      // Only lines with content are kept, so anything before the delimiter line is a statement.
+      hasContent = lineStart > 0;
+      statement.setLength(lineStart);
+      emitStatement(LineKind.START);
+    } else if (isBlankLine()) {
+      statement.setLength(lineStart);
+    } else if (!hasContent) {
+      statement.setLength(0);
+    } else {
+      statement.append(LINE_SEPARATOR);
+    }
+    lineStart = statement.length();
+    codeStart = lineStart;
+    lineKind = LineKind.START;
+    previousChar = 0;
+    dollarTagStart = -1;
+  }
+
+  private void emitStatement(LineKind nextLineKind) {
+    if (hasContent) {
+      pending = new Token(false, statement.toString());
+    }
+    statement.setLength(0);
+    lineStart = 0;
+    codeStart = 0;
+    hasContent = false;
+    hadContent = false;
+    lineKind = nextLineKind;
+    previousChar = 0;
+    dollarTagStart = -1;
+  }
+
+  private boolean isDelimiterLine() {
+    int start = lineStart;
+    int end = statement.length();
+    while (start < end && Character.isWhitespace(statement.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(statement.charAt(end - 1))) {
+      end--;
+    }
+    if (end - start != delimiter.length()) {
+      return false;
+    }
+    for (int i = 0; i < delimiter.length(); i++) {
+      if (statement.charAt(start + i) != delimiter.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isBlankLine() {
+    for (int i = lineStart; i < statement.length(); i++) {
+      if (!Character.isWhitespace(statement.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean endsWith(String suffix) {
+    int offset = statement.length() - suffix.length();
+    if (offset < 0) {
+      return false;
+    }
+    for (int i = 0; i < suffix.length(); i++) {
+      if (statement.charAt(offset + i) != suffix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.MigrationLoader;
+
+/**
+ * Reads the migration scripts that are about to be applied on a background thread, so that the next script is decoded
+ * and its variables are replaced while the current one is executed.
+ * <p>
+ * The scripts are read in chunks through a bounded queue. The reading thread blocks once the given number of
+ * characters is waiting to be executed, however large the scripts are. The readers must be requested in the order of
+ * the scripts. As the loader is used on both threads, it must be thread-safe.
+ */
+final class ScriptPrefetcher implements AutoCloseable {
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private static final char[] END = new char[0];
+
+  private static final class Chunk {
+    private final int script;
+    private final char[] chars;
+    private final IOException error;
+
+    Chunk(int script, char[] chars, IOException error) {
+      this.script = script;
+      this.chars = chars;
+      this.error = error;
+    }
+  }
+
+  private final MigrationLoader migrationsLoader;
+  private final List<Change> changes;
+  private final BlockingQueue<Chunk> queue;
+  private final Thread thread;
+  private int next;
+
+  ScriptPrefetcher(MigrationLoader migrationsLoader, List<Change> changes, int bufferSize) {
+    this.migrationsLoader = migrationsLoader;
+    this.changes = changes;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, bufferSize / CHUNK_SIZE));
+    this.thread = new Thread(this::prefetch, "migrations-prefetch");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * @return A reader of the next script, which must be the given change.
+   */
+  Reader getScriptReader(Change change) {
+    if (next >= changes.size() || changes.get(next) != change) {
+      throw new MigrationException("Scripts must be read in the order they are prefetched.");
+    }
+    return new ChunkReader(next++);
+  }
+
+  @Override
+  public void close() {
+    thread.interrupt();
+    queue.clear();
+  }
+
+  private void prefetch() {
+    try {
+      for (int i = 0; i < changes.size(); i++) {
+        try (Reader reader = migrationsLoader.getScriptReader(changes.get(i), false)) {
+          char[] buffer = new char[CHUNK_SIZE];
+          int length = 0;
+          for (int n; (n = reader.read(buffer, length, buffer.length - length)) > -1;) {
+            length += n;
+            if (length == buffer.length) {
+              queue.put(new Chunk(i, buffer, null));
+              buffer = new char[CHUNK_SIZE];
+              length = 0;
+            }
+          }
+          if (length > 0) {
+            char[] chars = new char[length];
+            System.arraycopy(buffer, 0, chars, 0, length);
+            queue.put(new Chunk(i, chars, null));
+          }
+          queue.put(new Chunk(i, END, null));
+        } catch (IOException | RuntimeException e) {
+          queue.put(new Chunk(i, null, e instanceof IOException ? (IOException) e : new IOException(e)));
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      // closed
+    }
+  }
+
+  private final class ChunkReader extends Reader {
+    private final int script;
+    private char[] chars;
+    private int pos;
+    private boolean eof;
+
+    ChunkReader(int script) {
+      this.script = script;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (chars == null || pos == chars.length) {
+        if (eof || !take()) {
+          return -1;
+        }
+      }
+      int n = Math.min(len, chars.length - pos);
+      System.arraycopy(chars, pos, cbuf, off, n);
+      pos += n;
+      return n;
+    }
+
+    private boolean take() throws IOException {
+      Chunk chunk;
+      do {
+        try {
+          chunk = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IOException("Interrupted while reading the next migration script.", e);
+        }
+        // Skip what is left of earlier scripts that were not read to the end.
+      } while (chunk.script < script);
+      if (chunk.error != null) {
+        eof = true;
+        throw chunk.error;
+      }
+      if (chunk.chars == END) {
+        eof = true;
+        return false;
+      }
+      chars = chunk.chars;
+      pos = 0;
+      return true;
+    }
+
+    @Override
+    public void close() {
+      // The remaining chunks are skipped by the reader of the next script.
+    }
+  }
+}
@@ -18,12 +18,18 @@ package org.apache.ibatis.migration.operations;
 import java.io.BufferedReader;
 import java.io.PrintWriter;
 import java.io.Reader;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.SQLWarning;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,8 +42,19 @@ public class ScriptRunner {
 
   private static final String DEFAULT_DELIMITER = ";";
 
-  private static final Pattern DELIMITER_PATTERN = Pattern
-      .compile("^\\s*((--)|(//))?\\s*(//)?\\s*@DELIMITER\\s+([^\\s]+)", Pattern.CASE_INSENSITIVE);
+  private static final int DEFAULT_BATCH_SIZE = 1000;
+
+  private static final Pattern BATCH_PATTERN = Pattern
+      .compile("^\\s*((--)|(//))?\\s*(//)?\\s*@BATCH\\b(\\s+size\\s*=\\s*(\\d+))?", Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern END_BATCH_PATTERN = Pattern.compile("^\\s*((--)|(//))?\\s*(//)?\\s*@ENDBATCH\\b",
+      Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern TIMEOUT_PATTERN = Pattern.compile("^\\s*((--)|(//))?\\s*(//)?\\s*@TIMEOUT\\b",
+      Pattern.CASE_INSENSITIVE);
+
+  private static final Pattern TIMEOUT_SETTING_PATTERN = Pattern.compile("\\b(statement|migration)\\s*=\\s*(\\d+)",
+      Pattern.CASE_INSENSITIVE);
 
   private final Connection connection;
 
@@ -47,12 +64,28 @@ public class ScriptRunner {
   private boolean sendFullScript;
   private boolean removeCRs;
   private boolean escapeProcessing = true;
+  private int batchSize;
+  private int statementTimeout;
+  private int migrationTimeout;
+  private int echoInterval = 1;
+  private int parseAhead;
+  private int resumeAfter;
 
   private PrintWriter logWriter = new PrintWriter(System.out);
   private PrintWriter errorLogWriter = new PrintWriter(System.err);
 
   private String delimiter = DEFAULT_DELIMITER;
   private boolean fullLineDelimiter;
+  private boolean backslashEscapes;
+
+  private int currentBatchSize;
+  private Statement batchStatement;
+  private final List<String> batchCommands = new ArrayList<>();
+
+  private final List<StatementListener> statementListeners = new ArrayList<>();
+  private int statementIndex;
+
+  private final StatementWatchdog watchdog = new StatementWatchdog();
 
   public ScriptRunner(Connection connection) {
     this.connection = connection;
@@ -90,6 +123,88 @@ public class ScriptRunner {
     this.escapeProcessing = escapeProcessing;
   }
 
+  /**
+   * Sets the number of statements sent to the database in a single JDBC batch. Batching is disabled when the size is
+   * zero or less, which is the default. Scripts can also switch batching on and off with {@code -- @BATCH size=N} and
+   * {@code -- @ENDBATCH}. Batching is ignored when the full script is sent at once.
+   *
+   * @param batchSize
+   *          the number of statements per batch
+   */
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Sets the maximum number of seconds a single statement may run before it is cancelled. Scripts can override it with
+   * {@code -- @TIMEOUT statement=N}.
+   *
+   * @param statementTimeout
+   *          the timeout in seconds; zero (the default) for no limit
+   */
+  public void setStatementTimeout(int statementTimeout) {
+    this.statementTimeout = statementTimeout;
+  }
+
+  /**
+   * Sets the maximum number of seconds a whole script may run. The statement in flight is cancelled when it expires.
+   * Scripts can override it with {@code -- @TIMEOUT migration=N}.
+   *
+   * @param migrationTimeout
+   *          the timeout in seconds; zero (the default) for no limit
+   */
+  public void setMigrationTimeout(int migrationTimeout) {
+    this.migrationTimeout = migrationTimeout;
+  }
+
+  /**
+   * Sets how often executed statements are echoed to the log writer. With the default of 1 every statement and comment
+   * is echoed. With a larger value only every Nth statement is echoed and comments are not, which keeps the log of
+   * large scripts short. Zero disables the echo. Result sets and errors are always printed.
+   *
+   * @param echoInterval
+   *          echo every Nth statement
+   */
+  public void setEchoInterval(int echoInterval) {
+    this.echoInterval = echoInterval;
+  }
+
+  /**
+   * Parses the script on a separate thread while the statements are executed.
+   *
+   * @param parseAhead
+   *          the maximum number of statements and comments parsed ahead of execution; <code>0</code> parses each
+   *          statement right before it is executed
+   */
+  public void setParseAhead(int parseAhead) {
+    this.parseAhead = parseAhead;
+  }
+
+  /**
+   * Skips the first statements of the next script, which were executed and committed by an earlier run. Comments and
+   * directives are still processed and the skipped statements keep their index.
+   *
+   * @param resumeAfter
+   *          the index of the last statement that does not need to be executed again
+   */
+  public void setResumeAfter(int resumeAfter) {
+    this.resumeAfter = resumeAfter;
+  }
+
+  /**
+   * Adds a listener that is notified with the elapsed time and update count of every executed statement.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void addStatementListener(StatementListener listener) {
+    statementListeners.add(listener);
+  }
+
+  public void removeStatementListener(StatementListener listener) {
+    statementListeners.remove(listener);
+  }
+
   public void setLogWriter(PrintWriter logWriter) {
     this.logWriter = logWriter;
   }
@@ -106,8 +221,22 @@ public class ScriptRunner {
     this.fullLineDelimiter = fullLineDelimiter;
   }
 
+  /**
+   * Sets whether a backslash escapes the next character inside quoted strings, as in MySQL. Off by default, because in
+   * standard SQL a backslash is an ordinary character in string literals.
+   *
+   * @param backslashEscapes
+   *          <code>true</code> if a backslash escapes the next character
+   */
+  public void setBackslashEscapes(boolean backslashEscapes) {
+    this.backslashEscapes = backslashEscapes;
+  }
+
   public void runScript(Reader reader) {
     setAutoCommit();
+    currentBatchSize = batchSize;
+    statementIndex = 0;
+    watchdog.startScript(statementTimeout, migrationTimeout);
 
     try {
       if (sendFullScript) {
@@ -116,7 +245,10 @@ public class ScriptRunner {
         executeLineByLine(reader);
       }
     } finally {
+      resumeAfter = 0;
+      closeBatch();
       rollbackConnection();
+      flushLog();
     }
   }
 
@@ -129,7 +261,9 @@ public class ScriptRunner {
         script.append(LINE_SEPARATOR);
       }
       String command = script.toString();
-      println(command);
+      if (echoInterval > 0) {
+        println(command);
+      }
       executeStatement(command);
       commitConnection();
     } catch (Exception e) {
@@ -140,19 +274,42 @@ public class ScriptRunner {
   }
 
   private void executeLineByLine(Reader reader) {
-    StringBuilder command = new StringBuilder();
+    ScriptParser scriptParser = new ScriptParser(reader, delimiter, fullLineDelimiter, backslashEscapes);
+    ParseAheadQueue queue = parseAhead > 0 ? new ParseAheadQueue(scriptParser, parseAhead) : null;
+    StatementSource parser = queue == null ? scriptParser : queue;
+    String command = "";
     try {
-      BufferedReader lineReader = new BufferedReader(reader);
-      String line;
-      while ((line = lineReader.readLine()) != null) {
-        handleLine(command, line);
+      for (ScriptParser.Token token; (token = parser.next()) != null;) {
+        if (token.isComment()) {
+          if (echoInterval == 1) {
+            println(token.getText());
+          }
+          handleDirective(token.getText());
+        } else {
+          command = token.getText();
+          if (statementIndex < resumeAfter) {
+            statementIndex++;
+            continue;
+          }
+          if (echoInterval > 0 && (statementIndex + 1) % echoInterval == 0) {
+            println(command);
+          }
+          executeStatement(command);
+        }
       }
+      command = "";
+      executeBatch();
       commitConnection();
-      checkForMissingLineTerminator(command);
+      checkForMissingLineTerminator(parser.getUnterminatedStatement());
     } catch (Exception e) {
       String message = "Error executing: " + command + ".  Cause: " + e;
       printlnError(message);
       throw new RuntimeException(message, e);
+    } finally {
+      if (queue != null) {
+        queue.close();
+      }
+      delimiter = parser.getDelimiter();
     }
   }
 
@@ -198,42 +355,51 @@ public class ScriptRunner {
     }
   }
 
-  private void checkForMissingLineTerminator(StringBuilder command) {
-    if (command != null && command.toString().trim().length() > 0) {
+  private void checkForMissingLineTerminator(String command) {
+    if (command != null && command.trim().length() > 0) {
       throw new RuntimeException("Line missing end-of-line terminator (" + delimiter + ") => " + command);
     }
   }
 
-  private void handleLine(StringBuilder command, String line) throws SQLException {
-    String trimmedLine = line.trim();
-    if (lineIsComment(trimmedLine)) {
-      Matcher matcher = DELIMITER_PATTERN.matcher(trimmedLine);
-      if (matcher.find()) {
-        delimiter = matcher.group(5);
+  private void handleDirective(String trimmedLine) throws SQLException {
+    if (TIMEOUT_PATTERN.matcher(trimmedLine).find()) {
+      Matcher matcher = TIMEOUT_SETTING_PATTERN.matcher(trimmedLine);
+      while (matcher.find()) {
+        int seconds = Integer.parseInt(matcher.group(2));
+        if ("statement".equalsIgnoreCase(matcher.group(1))) {
+          watchdog.setStatementTimeout(seconds);
+        } else {
+          watchdog.setScriptTimeout(seconds);
+        }
+      }
+      return;
+    }
+    if (END_BATCH_PATTERN.matcher(trimmedLine).find()) {
+      executeBatch();
+      currentBatchSize = batchSize;
+      return;
+    }
+    Matcher matcher = BATCH_PATTERN.matcher(trimmedLine);
+    if (matcher.find()) {
+      executeBatch();
+      String size = matcher.group(6);
+      if (size != null) {
+        currentBatchSize = Integer.parseInt(size);
+      } else {
+        currentBatchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
       }
-      println(trimmedLine);
-    } else if (commandReadyToExecute(trimmedLine)) {
-      command.append(line, 0, line.lastIndexOf(delimiter));
-      command.append(LINE_SEPARATOR);
-      println(command);
-      executeStatement(command.toString());
-      command.setLength(0);
-    } else if (trimmedLine.length() > 0) {
-      command.append(line);
-      command.append(LINE_SEPARATOR);
     }
   }
 
-  private boolean lineIsComment(String trimmedLine) {
-    return trimmedLine.startsWith("//") || trimmedLine.startsWith("--");
-  }
-
-  private boolean commandReadyToExecute(String trimmedLine) {
-    // issue #561 remove anything after the delimiter
-    return !fullLineDelimiter && trimmedLine.contains(delimiter) || fullLineDelimiter && trimmedLine.equals(delimiter);
+  private void executeStatement(String command) throws SQLException {
+    if (currentBatchSize > 0) {
+      addBatch(command);
+      return;
+    }
+    executeStatement(command, ++statementIndex);
   }
 
-  private void executeStatement(String command) throws SQLException {
+  private void executeStatement(String command, int index) throws SQLException {
     Statement statement = connection.createStatement();
     try {
       statement.setEscapeProcessing(escapeProcessing);
@@ -241,23 +407,38 @@ public class ScriptRunner {
       if (removeCRs) {
         sql = sql.replace("\r\n", "\n");
       }
+      long start = System.nanoTime();
       try {
+        watchdog.watch(statement);
+        long rows = -1;
         boolean hasResults = statement.execute(sql);
         // DO NOT try to 'improve' the condition even if IDE tells you to!
-        // It's important that getUpdateCount() is called here.
-        while (!(!hasResults && statement.getUpdateCount() == -1)) {
+        // It's important that getUpdateCount() is called here (and only once per result).
+        int updateCount = -1;
+        while (!(!hasResults && (updateCount = statement.getUpdateCount()) == -1)) {
           checkWarnings(statement);
           printResults(statement, hasResults);
+          if (!hasResults) {
+            rows = Math.max(rows, 0) + updateCount;
+          }
           hasResults = statement.getMoreResults();
         }
+        fireStatementExecuted(new ExecutedStatement(index, 1, command, elapsedMillis(start), rows));
       } catch (SQLWarning e) {
         throw e;
       } catch (SQLException e) {
+        SQLTimeoutException timeout = watchdog.toTimeoutException(e);
+        if (timeout != null) {
+          fireStatementTimedOut(new ExecutedStatement(index, 1, command, elapsedMillis(start), -1));
+          throw timeout;
+        }
         if (stopOnError) {
           throw e;
         }
         String message = "Error executing: " + command + ".  Cause: " + e;
         printlnError(message);
+      } finally {
+        watchdog.release();
       }
     } finally {
       try {
@@ -269,6 +450,156 @@ public class ScriptRunner {
     }
   }
 
+  private void addBatch(String command) throws SQLException {
+    if (batchStatement == null) {
+      batchStatement = connection.createStatement();
+      batchStatement.setEscapeProcessing(escapeProcessing);
+    }
+    batchStatement.addBatch(removeCRs ? command.replace("\r\n", "\n") : command);
+    batchCommands.add(command);
+    statementIndex++;
+    if (batchCommands.size() >= currentBatchSize) {
+      executeBatch();
+    }
+  }
+
+  private void executeBatch() throws SQLException {
+    if (batchStatement == null) {
+      return;
+    }
+    long start = System.nanoTime();
+    int batchCount = batchCommands.size();
+    int firstIndex = statementIndex - batchCount + 1;
+    String firstCommand = batchCommands.get(0);
+    List<String> remaining = null;
+    Savepoint savepoint = stopOnError ? null : setSavepoint();
+    try {
+      watchdog.watch(batchStatement);
+      int[] updateCounts = batchStatement.executeBatch();
+      checkWarnings(batchStatement);
+      commitConnection();
+      long rows = printBatchResult(updateCounts);
+      fireStatementExecuted(new ExecutedStatement(firstIndex, batchCount, firstCommand, elapsedMillis(start), rows));
+    } catch (SQLWarning e) {
+      throw e;
+    } catch (SQLException e) {
+      SQLTimeoutException timeout = watchdog.toTimeoutException(e);
+      if (timeout != null) {
+        fireStatementTimedOut(new ExecutedStatement(firstIndex, batchCount, firstCommand, elapsedMillis(start), -1));
+        throw timeout;
+      }
+      if (!(e instanceof BatchUpdateException)) {
+        if (stopOnError) {
+          throw e;
+        }
+        printlnError("Error executing batch of statements " + firstIndex + " to " + statementIndex
+            + ", starting with: " + firstCommand + ".  Cause: " + e);
+        return;
+      }
+      int[] updateCounts = ((BatchUpdateException) e).getUpdateCounts();
+      int executed = updateCounts == null ? 0 : updateCounts.length;
+      if (executed < batchCount) {
+        String failed = batchCommands.get(executed);
+        if (stopOnError) {
+          throw new SQLException("Error executing statement " + (firstIndex + executed) + " of batch: " + failed,
+              e.getSQLState(), e.getErrorCode(), e);
+        }
+        if (savepoint != null) {
+          // Undo the whole batch and run it one statement at a time, so that no statement is applied twice.
+          connection.rollback(savepoint);
+          remaining = new ArrayList<>(batchCommands);
+        } else {
+          // Each statement before the failure has been committed; the driver did not run those after it.
+          if (executed > 0) {
+            fireStatementExecuted(new ExecutedStatement(firstIndex, executed, firstCommand, elapsedMillis(start),
+                printBatchResult(Arrays.copyOf(updateCounts, executed))));
+          }
+          printlnError("Error executing: " + failed + ".  Cause: " + e);
+          remaining = new ArrayList<>(batchCommands.subList(executed + 1, batchCount));
+        }
+      } else {
+        // The driver executed every statement: report those that failed.
+        String failed = null;
+        for (int i = 0; i < batchCount; i++) {
+          if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+            if (stopOnError) {
+              throw new SQLException("Error executing statement " + (firstIndex + i) + " of batch: "
+                  + batchCommands.get(i), e.getSQLState(), e.getErrorCode(), e);
+            }
+            failed = batchCommands.get(i);
+            printlnError("Error executing: " + failed + ".  Cause: " + e);
+          }
+        }
+        if (failed == null) {
+          printlnError("Error executing batch of statements " + firstIndex + " to " + statementIndex
+              + ", starting with: " + firstCommand + ".  Cause: " + e);
+        }
+        commitConnection();
+      }
+    } finally {
+      watchdog.release();
+      closeBatch();
+    }
+    if (remaining != null) {
+      int index = statementIndex - remaining.size();
+      for (String command : remaining) {
+        executeStatement(command, ++index);
+      }
+      commitConnection();
+    }
+  }
+
+  /**
+   * @return A savepoint before the next batch if the connection is in a transaction and supports savepoints;
+   *         <code>null</code> otherwise.
+   */
+  private Savepoint setSavepoint() {
+    try {
+      return connection.getAutoCommit() ? null : connection.setSavepoint();
+    } catch (SQLException e) {
+      return null;
+    }
+  }
+
+  private void closeBatch() {
+    if (batchStatement != null) {
+      try {
+        batchStatement.close();
+      } catch (Exception ignored) {
+        // Ignore
+      }
+      batchStatement = null;
+    }
+    batchCommands.clear();
+  }
+
+  private long printBatchResult(int[] updateCounts) {
+    long rows = 0;
+    for (int count : updateCounts) {
+      if (count > 0) {
+        rows += count;
+      }
+    }
+    println("Executed batch of " + updateCounts.length + " statements, " + rows + " rows affected.");
+    return rows;
+  }
+
+  private void fireStatementExecuted(ExecutedStatement executedStatement) {
+    for (StatementListener listener : statementListeners) {
+      listener.statementExecuted(executedStatement);
+    }
+  }
+
+  private void fireStatementTimedOut(ExecutedStatement executedStatement) {
+    for (StatementListener listener : statementListeners) {
+      listener.statementTimedOut(executedStatement);
+    }
+  }
+
+  private static long elapsedMillis(long startNanos) {
+    return (System.nanoTime() - startNanos) / 1_000_000;
+  }
+
   private void checkWarnings(Statement statement) throws SQLException {
     if (!throwWarning) {
       return;
@@ -288,38 +619,40 @@ public class ScriptRunner {
     try (ResultSet rs = statement.getResultSet()) {
       ResultSetMetaData md = rs.getMetaData();
       int cols = md.getColumnCount();
+      StringBuilder row = new StringBuilder();
       for (int i = 0; i < cols; i++) {
         String name = md.getColumnLabel(i + 1);
-        print(name + "\t");
+        row.append(name).append('\t');
       }
-      println("");
+      println(row);
       while (rs.next()) {
+        row.setLength(0);
         for (int i = 0; i < cols; i++) {
           String value = rs.getString(i + 1);
-          print(value + "\t");
+          row.append(value).append('\t');
         }
-        println("");
+        println(row);
       }
     } catch (SQLException e) {
       printlnError("Error printing results: " + e.getMessage());
     }
   }
 
-  private void print(Object o) {
+  private void println(Object o) {
     if (logWriter != null) {
-      logWriter.print(o);
-      logWriter.flush();
+      logWriter.println(o);
     }
   }
 
-  private void println(Object o) {
+  private void flushLog() {
     if (logWriter != null) {
-      logWriter.println(o);
       logWriter.flush();
     }
   }
 
   private void printlnError(Object o) {
+    // Keep the log and the error in order when both go to the same stream.
+    flushLog();
     if (errorLogWriter != null) {
       errorLogWriter.println(o);
       errorLogWriter.flush();
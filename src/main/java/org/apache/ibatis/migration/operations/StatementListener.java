@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+/**
+ * Receives a notification for every statement (or JDBC batch) that {@link ScriptRunner} executes successfully.
+ */
+public interface StatementListener {
+
+  /**
+   * @param statement
+   *          timing and result of the executed statement.
+   */
+  void statementExecuted(ExecutedStatement statement);
+
+  /**
+   * @param statement
+   *          the statement that was cancelled because a statement or script timeout expired.
+   */
+  default void statementTimedOut(ExecutedStatement statement) {
+    // nothing by default
+  }
+
+}
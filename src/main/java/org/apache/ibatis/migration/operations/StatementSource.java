@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.IOException;
+
+/**
+ * The comments and statements of a script in the order they are executed.
+ */
+interface StatementSource {
+
+  /**
+   * @return The next comment or statement in the script; <code>null</code> at the end of the script.
+   *
+   * @throws IOException
+   *           If an I/O error occurs.
+   */
+  ScriptParser.Token next() throws IOException;
+
+  /**
+   * @return The delimiter in effect after the last returned token.
+   */
+  String getDelimiter();
+
+  /**
+   * @return The text of an unterminated statement left at the end of the script; <code>null</code> if there is none.
+   */
+  String getUnterminatedStatement();
+}
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the statement and script timeouts of a {@link ScriptRunner}. The in-flight statement is cancelled from a
+ * shared daemon thread when either timeout expires.
+ */
+final class StatementWatchdog {
+
+  private static class ExecutorHolder {
+    static final ScheduledThreadPoolExecutor INSTANCE = createExecutor();
+
+    static ScheduledThreadPoolExecutor createExecutor() {
+      ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "migrations-statement-watchdog");
+        thread.setDaemon(true);
+        return thread;
+      });
+      executor.setRemoveOnCancelPolicy(true);
+      return executor;
+    }
+  }
+
+  private int statementTimeout;
+  private int scriptTimeout;
+  private long scriptStart;
+
+  private ScheduledFuture<?> cancelTask;
+  /**
+   * Incremented for every watched statement, so that a cancel task that was already running when its statement was
+   * released cannot mark the next statement as timed out.
+   */
+  private volatile int generation;
+  private volatile Expired expired;
+
+  /**
+   * Starts the clock for a new script.
+   *
+   * @param statementTimeout
+   *          maximum seconds per statement; <code>0</code> for no limit.
+   * @param scriptTimeout
+   *          maximum seconds for the whole script; <code>0</code> for no limit.
+   */
+  void startScript(int statementTimeout, int scriptTimeout) {
+    this.statementTimeout = statementTimeout;
+    this.scriptTimeout = scriptTimeout;
+    this.scriptStart = System.nanoTime();
+  }
+
+  void setStatementTimeout(int statementTimeout) {
+    this.statementTimeout = statementTimeout;
+  }
+
+  void setScriptTimeout(int scriptTimeout) {
+    this.scriptTimeout = scriptTimeout;
+  }
+
+  void watch(Statement statement) throws SQLException {
+    int watched = ++generation;
+    long delay = Long.MAX_VALUE;
+    String reason = null;
+    if (statementTimeout > 0) {
+      statement.setQueryTimeout(statementTimeout);
+      delay = TimeUnit.SECONDS.toNanos(statementTimeout);
+      reason = "Statement timed out after " + statementTimeout + " seconds.";
+    }
+    if (scriptTimeout > 0) {
+      long remaining = scriptStart + TimeUnit.SECONDS.toNanos(scriptTimeout) - System.nanoTime();
+      String scriptReason = "Script timed out after " + scriptTimeout + " seconds.";
+      if (remaining <= 0) {
+        throw new SQLTimeoutException(scriptReason);
+      }
+      if (remaining < delay) {
+        delay = remaining;
+        reason = scriptReason;
+      }
+    }
+    if (reason != null) {
+      final String message = reason;
+      cancelTask = ExecutorHolder.INSTANCE.schedule(() -> cancel(statement, watched, message), delay,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+
+  void release() {
+    if (cancelTask != null) {
+      cancelTask.cancel(false);
+      cancelTask = null;
+    }
+  }
+
+  /**
+   * @param e
+   *          the exception thrown by the watched statement.
+   *
+   * @return A {@link SQLTimeoutException} if the statement failed because of a timeout; <code>null</code> otherwise.
+   */
+  SQLTimeoutException toTimeoutException(SQLException e) {
+    Expired timeout = expired;
+    if (timeout != null && timeout.generation == generation) {
+      return new SQLTimeoutException(timeout.reason, e);
+    }
+    return e instanceof SQLTimeoutException ? (SQLTimeoutException) e : null;
+  }
+
+  private void cancel(Statement statement, int watched, String reason) {
+    if (watched != generation) {
+      return;
+    }
+    expired = new Expired(watched, reason);
+    try {
+      statement.cancel();
+    } catch (SQLException e) {
+      // The driver could not cancel; the statement will fail or complete on its own.
+    }
+  }
+
+  private static final class Expired {
+    private final int generation;
+    private final String reason;
+
+    Expired(int generation, String reason) {
+      this.generation = generation;
+      this.reason = reason;
+    }
+  }
+}
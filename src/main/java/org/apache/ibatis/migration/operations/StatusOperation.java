@@ -19,9 +19,7 @@ import java.io.PrintStream;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.apache.ibatis.migration.Change;
 import org.apache.ibatis.migration.ConnectionProvider;
@@ -31,12 +29,26 @@ import org.apache.ibatis.migration.options.DatabaseOperationOption;
 import org.apache.ibatis.migration.utils.Util;
 
 public final class StatusOperation extends DatabaseOperation {
+  private final boolean keepStatus;
 
   private int applied;
   private int pending;
   private int missing;
 
-  private List<Change> changes;
+  private List<Change> changes = List.of();
+
+  public StatusOperation() {
+    this(true);
+  }
+
+  /**
+   * @param keepStatus
+   *          <code>false</code> to keep only the counts, so that the changelog is not held in memory; by default every
+   *          reported change is kept for {@link #getCurrentStatus()}
+   */
+  public StatusOperation(boolean keepStatus) {
+    this.keepStatus = keepStatus;
+  }
 
   public StatusOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
       DatabaseOperationOption option, PrintStream printStream) {
@@ -45,40 +57,41 @@ public final class StatusOperation extends DatabaseOperation {
     }
     println(printStream, "ID             Applied At          Description");
     println(printStream, Util.horizontalLine("", 80));
-    changes = new ArrayList<>();
+    changes = keepStatus ? new ArrayList<>() : List.of();
     List<Change> migrations = migrationsLoader.getMigrations();
+    migrations.sort(null);
     String skippedOrMissing = null;
     try (Connection con = connectionProvider.getConnection()) {
-      if (changelogExists(con, option)) {
-        List<Change> changelog = getChangelog(con, option);
-        skippedOrMissing = checkSkippedOrMissing(changelog, migrations);
-
-        Set<Change> changelogAndMigrations = new HashSet<>(changelog);
-        changelogAndMigrations.addAll(migrations);
-
-        for (Change change : changelogAndMigrations) {
-          if (!migrations.contains(change)) {
-            change = new MissingScript(change);
-            missing++;
-          } else if (change.getAppliedTimestamp() != null) {
-            applied++;
-          } else {
-            pending++;
-          }
-          changes.add(change);
+      // The report is printed in ID order while the changelog is read.
+      ChangelogDiff diff = new ChangelogDiff(migrations, false);
+      diff.setListener(new ChangelogDiff.Listener() {
+        @Override
+        public void applied(Change changeInDb) {
+          applied++;
+          report(changeInDb, printStream);
+        }
+
+        @Override
+        public void pending(Change script) {
+          pending++;
+          report(script, printStream);
         }
+
+        @Override
+        public void missing(Change changeInDb) {
+          missing++;
+          report(new MissingScript(changeInDb), printStream);
+        }
+      });
+      if (changelogExists(con, option)) {
+        readChangelog(con, option, diff);
+        skippedOrMissing = diff.getWarnings();
       } else {
-        changes.addAll(migrations);
-        pending = migrations.size();
+        diff.finish();
       }
     } catch (SQLException e) {
       throw new MigrationException("Error getting connection. Cause: " + e, e);
     }
-
-    changes.sort(null);
-    for (Change change : changes) {
-      println(printStream, change.toString());
-    }
     println(printStream);
 
     if (skippedOrMissing != null && !skippedOrMissing.isEmpty()) {
@@ -88,6 +101,13 @@ public final class StatusOperation extends DatabaseOperation {
     return this;
   }
 
+  private void report(Change change, PrintStream printStream) {
+    if (keepStatus) {
+      changes.add(change);
+    }
+    println(printStream, change.toString());
+  }
+
   public int getAppliedCount() {
     return applied;
   }
@@ -100,6 +120,9 @@ public final class StatusOperation extends DatabaseOperation {
     return missing;
   }
 
+  /**
+   * @return The applied, pending and missing changes in ID order; empty if the operation was created not to keep them.
+   */
   public List<Change> getCurrentStatus() {
     return changes;
   }
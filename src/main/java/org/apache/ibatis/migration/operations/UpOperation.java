@@ -18,6 +18,8 @@ package org.apache.ibatis.migration.operations;
 import java.io.PrintStream;
 import java.io.Reader;
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -52,59 +54,114 @@ public final class UpOperation extends DatabaseOperation {
 
   public UpOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
       DatabaseOperationOption option, PrintStream printStream, MigrationHook hook) {
-    try (Connection con = connectionProvider.getConnection()) {
+    try (OperationContext context = OperationContext.open(connectionProvider, migrationsLoader)) {
+      return operate(context, connectionProvider, migrationsLoader, option, printStream, hook);
+    } catch (SQLException e) {
+      throw new MigrationException("Error executing command.  Cause: " + e, e);
+    }
+  }
+
+  UpOperation operate(OperationContext context, ConnectionProvider connectionProvider,
+      MigrationLoader migrationsLoader, DatabaseOperationOption option, PrintStream printStream, MigrationHook hook) {
+    try {
       if (option == null) {
         option = new DatabaseOperationOption();
       }
+      Connection con = context.getConnection();
+      List<Change> migrations = context.getMigrations();
 
-      List<Change> changesInDb = List.of();
-      if (changelogExists(con, option)) {
-        changesInDb = getChangelog(con, option);
+      ChangelogDiff diff;
+      if (context.getChangelog() != null) {
+        diff = new ChangelogDiff(context.getChangelog(), migrations);
+      } else if (isUpToDate(con, option, migrations)) {
+        return this;
+      } else {
+        diff = new ChangelogDiff(migrations, false);
+        if (changelogExists(con, option)) {
+          readChangelog(con, option, diff);
+        }
+      }
+      Change lastInDb = diff.getLastInDb();
+      String skippedOrMissing = diff.getWarnings();
+      List<Change> pending = new ArrayList<>();
+      for (Change change : migrations) {
+        if (steps != null && pending.size() >= steps) {
+          break;
+        }
+        if (lastInDb == null || change.compareTo(lastInDb) > 0) {
+          pending.add(change);
+        }
       }
-
-      List<Change> migrations = migrationsLoader.getMigrations();
-      migrations.sort(null);
-      String skippedOrMissing = checkSkippedOrMissing(changesInDb, migrations);
       int stepCount = 0;
 
       Map<String, Object> hookBindings = new HashMap<>();
       ScriptRunner runner = getScriptRunner(con, option, printStream);
+      ExecutionReport report = new ExecutionReport(option.getSlowStatementThreshold());
+      runner.addStatementListener(report);
+      CheckpointOperation checkpoints = null;
+      if (option.getCheckpointTable() != null && option.isAutoCommit() && !option.isSendFullScript()) {
+        checkpoints = new CheckpointOperation(con, option.getCheckpointTable());
+        runner.addStatementListener(checkpoints);
+      }
+      ScriptPrefetcher prefetcher = option.getPrefetchBufferSize() > 0 && pending.size() > 1
+          ? new ScriptPrefetcher(migrationsLoader, pending, option.getPrefetchBufferSize()) : null;
       try {
-        for (Change change : migrations) {
-          if (changesInDb.isEmpty() || change.compareTo(changesInDb.get(changesInDb.size() - 1)) > 0) {
-            if (stepCount == 0 && hook != null) {
-              hookBindings.put(MigrationHook.HOOK_CONTEXT, new HookContext(connectionProvider, runner, null));
-              hook.before(hookBindings);
-            }
-            if (hook != null) {
-              hookBindings.put(MigrationHook.HOOK_CONTEXT,
-                  new HookContext(connectionProvider, runner, new Change(change)));
-              hook.beforeEach(hookBindings);
-            }
-            println(printStream, Util.horizontalLine("Applying: " + change.getFilename(), 80));
-            try (Reader scriptReader = migrationsLoader.getScriptReader(change, false)) {
-              runner.runScript(scriptReader);
-            }
-            insertChangelog(change, con, option);
-            println(printStream);
-            if (hook != null) {
-              hookBindings.put(MigrationHook.HOOK_CONTEXT,
-                  new HookContext(connectionProvider, runner, new Change(change)));
-              hook.afterEach(hookBindings);
-            }
-            stepCount++;
-            if (steps != null && stepCount >= steps) {
-              break;
+        for (Change change : pending) {
+          report.setScript(change.getFilename());
+          if (stepCount == 0 && hook != null) {
+            hookBindings.put(MigrationHook.HOOK_CONTEXT, new HookContext(connectionProvider, runner, null));
+            hook.before(hookBindings);
+          }
+          if (hook != null) {
+            hookBindings.put(MigrationHook.HOOK_CONTEXT,
+                new HookContext(connectionProvider, runner, new Change(change)));
+            hook.beforeEach(hookBindings);
+          }
+          println(printStream, Util.horizontalLine("Applying: " + change.getFilename(), 80));
+          String checksum = option.isChangelogChecksum() || checkpoints != null
+              ? migrationsLoader.getChecksum(change) : null;
+          if (checkpoints != null && checksum != null) {
+            int resumeAfter = checkpoints.start(change, checksum);
+            if (resumeAfter > 0) {
+              println(printStream, "Resuming after statement " + resumeAfter + " of the previous run.");
+              runner.setResumeAfter(resumeAfter);
             }
           }
+          try (Reader scriptReader = prefetcher == null ? migrationsLoader.getScriptReader(change, false)
+              : prefetcher.getScriptReader(change)) {
+            runner.runScript(scriptReader);
+          }
+          if (option.isChangelogChecksum()) {
+            change.setChecksum(checksum);
+          }
+          insertChangelog(change, con, option);
+          context.applied(change);
+          if (checkpoints != null) {
+            checkpoints.finish();
+          }
+          println(printStream);
+          if (hook != null) {
+            hookBindings.put(MigrationHook.HOOK_CONTEXT,
+                new HookContext(connectionProvider, runner, new Change(change)));
+            hook.afterEach(hookBindings);
+          }
+          stepCount++;
         }
         if (stepCount > 0 && hook != null) {
           hookBindings.put(MigrationHook.HOOK_CONTEXT, new HookContext(connectionProvider, runner, null));
           hook.after(hookBindings);
         }
+        if (stepCount > 0) {
+          println(printStream, report.summary());
+        }
         println(printStream, skippedOrMissing);
         return this;
       } catch (Exception e) {
+        println(printStream, report.summary());
+        runner.removeStatementListener(report);
+        if (checkpoints != null) {
+          checkpoints.abort();
+        }
         try (Reader onAbortScriptReader = migrationsLoader.getOnAbortReader()) {
           if (onAbortScriptReader != null) {
             println(printStream);
@@ -114,6 +171,10 @@ public final class UpOperation extends DatabaseOperation {
           }
         }
         throw e;
+      } finally {
+        if (prefetcher != null) {
+          prefetcher.close();
+        }
       }
     } catch (Throwable e) {
       while (e instanceof MigrationException && e.getCause() != null) {
@@ -0,0 +1,160 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.ConnectionProvider;
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.MigrationLoader;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+
+/**
+ * Compares the checksums stored in the changelog with the current content of the applied migration scripts.
+ * <p>
+ * The applied scripts are hashed in parallel on a fork-join pool.
+ */
+public final class ValidateOperation extends DatabaseOperation {
+
+  private static final int HASH_THRESHOLD = 16;
+
+  private int validated;
+  private int modified;
+  private int unchecked;
+  private int missing;
+
+  public ValidateOperation operate(ConnectionProvider connectionProvider, MigrationLoader migrationsLoader,
+      DatabaseOperationOption option, PrintStream printStream) {
+    if (option == null) {
+      option = new DatabaseOperationOption();
+    }
+    if (!option.isChangelogChecksum()) {
+      throw new MigrationException(
+          "Checksums are not read from the changelog.  Set changelog_checksum=true to validate applied migrations.");
+    }
+    List<Change> changelog;
+    try (Connection con = connectionProvider.getConnection()) {
+      if (!changelogExists(con, option)) {
+        throw new MigrationException("Change log doesn't exist, no migrations applied.  Try running 'up' instead.");
+      }
+      changelog = getChangelog(con, option);
+    } catch (SQLException e) {
+      throw new MigrationException("Error getting connection. Cause: " + e, e);
+    }
+    List<Change> migrations = migrationsLoader.getMigrations();
+    migrations.sort(null);
+    ChangelogDiff diff = new ChangelogDiff(changelog, migrations);
+    for (Change change : diff.getMissing()) {
+      missing++;
+      println(printStream, "MISSING:   " + change);
+    }
+
+    List<Change> stored = new ArrayList<>();
+    List<Change> scripts = new ArrayList<>();
+    for (int i = 0; i < diff.getApplied().size(); i++) {
+      Change applied = diff.getApplied().get(i);
+      if (applied.getChecksum() == null) {
+        unchecked++;
+      } else {
+        stored.add(applied);
+        scripts.add(diff.getAppliedScripts().get(i));
+      }
+    }
+
+    String[] checksums = new String[scripts.size()];
+    ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    try {
+      pool.invoke(new HashTask(migrationsLoader, scripts, checksums, 0, checksums.length));
+    } finally {
+      pool.shutdown();
+    }
+
+    for (int i = 0; i < checksums.length; i++) {
+      Change applied = stored.get(i);
+      if (checksums[i] == null) {
+        // The loader cannot compute checksums, e.g. for Java migrations.
+        unchecked++;
+      } else if (applied.getChecksum().equalsIgnoreCase(checksums[i])) {
+        validated++;
+      } else {
+        modified++;
+        println(printStream, "MODIFIED:  " + applied);
+      }
+    }
+
+    println(printStream);
+    println(printStream, validated + " validated, " + modified + " modified, " + unchecked + " without checksum, "
+        + missing + " missing.");
+    if (modified > 0) {
+      throw new MigrationException(modified + " applied migration(s) were modified after they were applied.");
+    }
+    return this;
+  }
+
+  public int getValidatedCount() {
+    return validated;
+  }
+
+  public int getModifiedCount() {
+    return modified;
+  }
+
+  public int getUncheckedCount() {
+    return unchecked;
+  }
+
+  public int getMissingCount() {
+    return missing;
+  }
+
+  private static class HashTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final MigrationLoader loader;
+    private final List<Change> scripts;
+    private final String[] checksums;
+    private final int start;
+    private final int end;
+
+    HashTask(MigrationLoader loader, List<Change> scripts, String[] checksums, int start, int end) {
+      this.loader = loader;
+      this.scripts = scripts;
+      this.checksums = checksums;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= HASH_THRESHOLD) {
+        for (int i = start; i < end; i++) {
+          checksums[i] = loader.getChecksum(scripts.get(i));
+        }
+        return;
+      }
+      int middle = start + end >>> 1;
+      invokeAll(new HashTask(loader, scripts, checksums, start, middle),
+          new HashTask(loader, scripts, checksums, middle, end));
+    }
+  }
+}
@@ -17,8 +17,8 @@ package org.apache.ibatis.migration.operations;
 
 import java.io.PrintStream;
 import java.math.BigDecimal;
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.ibatis.migration.Change;
@@ -48,11 +48,11 @@ public final class VersionOperation extends DatabaseOperation {
     if (option == null) {
       option = new DatabaseOperationOption();
     }
-    try (Connection con = connectionProvider.getConnection()) {
-      List<Change> changesInDb = changelogExists(con, option) ? getChangelog(con, option) : List.of();
-      List<Change> migrations = migrationsLoader.getMigrations();
+    try (OperationContext context = OperationContext.open(connectionProvider, migrationsLoader)) {
+      List<Change> changesInDb = context.loadChangelog(option);
+      List<Change> migrations = context.getMigrations();
       Change specified = new Change(version);
-      if (!migrations.contains(specified)) {
+      if (Collections.binarySearch(migrations, specified) < 0) {
         throw new MigrationException("A migration for the specified version number does not exist.");
       }
       Change lastChangeInDb = changesInDb.isEmpty() ? null : changesInDb.get(changesInDb.size() - 1);
@@ -64,7 +64,7 @@ public final class VersionOperation extends DatabaseOperation {
             steps++;
           }
         }
-        new UpOperation(steps).operate(connectionProvider, migrationsLoader, option, printStream, upHook);
+        new UpOperation(steps).operate(context, connectionProvider, migrationsLoader, option, printStream, upHook);
       } else if (specified.compareTo(lastChangeInDb) < 0) {
         println(printStream, "Downgrading to: " + version);
         int steps = 0;
@@ -73,7 +73,8 @@ public final class VersionOperation extends DatabaseOperation {
             steps++;
           }
         }
-        new DownOperation(steps).operate(connectionProvider, migrationsLoader, option, printStream, downHook);
+        new DownOperation(steps).operate(context, connectionProvider, migrationsLoader, option, printStream,
+            downHook);
       } else {
         println(printStream, "Already at version: " + version);
       }
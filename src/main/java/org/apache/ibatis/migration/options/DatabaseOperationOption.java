@@ -15,6 +15,8 @@
  */
 package org.apache.ibatis.migration.options;
 
+import org.apache.ibatis.migration.operations.StatementListener;
+
 public class DatabaseOperationOption {
   private static final String DEFAULT_CHANGELOG_TABLE = "CHANGELOG";
 
@@ -22,6 +24,10 @@ public class DatabaseOperationOption {
 
   private String changelogTable;
 
+  private boolean changelogChecksum;
+
+  private int changelogPageSize;
+
   private boolean stopOnError = true;
 
   private boolean throwWarning = true;
@@ -36,8 +42,28 @@ public class DatabaseOperationOption {
 
   private boolean fullLineDelimiter = false;
 
+  private boolean backslashEscapes;
+
   private String delimiter;
 
+  private int batchSize;
+
+  private long slowStatementThreshold;
+
+  private int statementTimeout;
+
+  private int migrationTimeout;
+
+  private int echoInterval = 1;
+
+  private int prefetchBufferSize;
+
+  private int parseAhead;
+
+  private String checkpointTable;
+
+  private StatementListener statementListener;
+
   public String getChangelogTable() {
     return changelogTable == null ? DEFAULT_CHANGELOG_TABLE : changelogTable;
   }
@@ -46,6 +72,29 @@ public class DatabaseOperationOption {
     this.changelogTable = changelogTable;
   }
 
+  /**
+   * @return <code>true</code> if the changelog table has a CHECKSUM column holding the checksum of each applied script.
+   */
+  public boolean isChangelogChecksum() {
+    return changelogChecksum;
+  }
+
+  public void setChangelogChecksum(boolean changelogChecksum) {
+    this.changelogChecksum = changelogChecksum;
+  }
+
+  /**
+   * @return The number of changelog entries read per query, which is also used as the fetch size; <code>0</code> reads
+   *         the whole changelog in one query.
+   */
+  public int getChangelogPageSize() {
+    return changelogPageSize;
+  }
+
+  public void setChangelogPageSize(int changelogPageSize) {
+    this.changelogPageSize = changelogPageSize;
+  }
+
   public boolean isStopOnError() {
     return stopOnError;
   }
@@ -102,6 +151,18 @@ public class DatabaseOperationOption {
     this.fullLineDelimiter = fullLineDelimiter;
   }
 
+  /**
+   * @return <code>true</code> if a backslash escapes the next character inside quoted strings of a script, as in MySQL.
+   *         Off by default.
+   */
+  public boolean isBackslashEscapes() {
+    return backslashEscapes;
+  }
+
+  public void setBackslashEscapes(boolean backslashEscapes) {
+    this.backslashEscapes = backslashEscapes;
+  }
+
   public String getDelimiter() {
     return delimiter == null ? DEFAULT_DELIMITER : delimiter;
   }
@@ -109,4 +170,104 @@ public class DatabaseOperationOption {
   public void setDelimiter(String delimiter) {
     this.delimiter = delimiter;
   }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * @return Statements that take at least this many milliseconds are listed in the summary; <code>0</code> disables
+   *         the list.
+   */
+  public long getSlowStatementThreshold() {
+    return slowStatementThreshold;
+  }
+
+  public void setSlowStatementThreshold(long slowStatementThreshold) {
+    this.slowStatementThreshold = slowStatementThreshold;
+  }
+
+  /**
+   * @return The maximum number of seconds a statement may run; <code>0</code> for no limit.
+   */
+  public int getStatementTimeout() {
+    return statementTimeout;
+  }
+
+  public void setStatementTimeout(int statementTimeout) {
+    this.statementTimeout = statementTimeout;
+  }
+
+  /**
+   * @return The maximum number of seconds a migration script may run; <code>0</code> for no limit.
+   */
+  public int getMigrationTimeout() {
+    return migrationTimeout;
+  }
+
+  public void setMigrationTimeout(int migrationTimeout) {
+    this.migrationTimeout = migrationTimeout;
+  }
+
+  /**
+   * @return Echo every Nth executed statement; <code>1</code> echoes everything and <code>0</code> nothing.
+   */
+  public int getEchoInterval() {
+    return echoInterval;
+  }
+
+  public void setEchoInterval(int echoInterval) {
+    this.echoInterval = echoInterval;
+  }
+
+  /**
+   * Scripts are read ahead on a background thread, so the {@link org.apache.ibatis.migration.MigrationLoader} must be
+   * thread-safe if this is greater than <code>0</code>.
+   *
+   * @return The number of characters of the next scripts that are read ahead while a migration is applied;
+   *         <code>0</code> reads each script when it is applied.
+   */
+  public int getPrefetchBufferSize() {
+    return prefetchBufferSize;
+  }
+
+  public void setPrefetchBufferSize(int prefetchBufferSize) {
+    this.prefetchBufferSize = prefetchBufferSize;
+  }
+
+  /**
+   * @return The number of statements parsed ahead of execution on a separate thread; <code>0</code> parses each
+   *         statement right before it is executed.
+   */
+  public int getParseAhead() {
+    return parseAhead;
+  }
+
+  public void setParseAhead(int parseAhead) {
+    this.parseAhead = parseAhead;
+  }
+
+  /**
+   * @return The table that records the last committed statement of a running migration when auto-commit is enabled;
+   *         <code>null</code> if migrations are not resumable.
+   */
+  public String getCheckpointTable() {
+    return checkpointTable;
+  }
+
+  public void setCheckpointTable(String checkpointTable) {
+    this.checkpointTable = checkpointTable;
+  }
+
+  public StatementListener getStatementListener() {
+    return statementListener;
+  }
+
+  public void setStatementListener(StatementListener statementListener) {
+    this.statementListener = statementListener;
+  }
 }
@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.apache.ibatis.migration.JavaMigrationLoader;
+import org.apache.ibatis.migration.MigrationScript;
+import org.apache.ibatis.migration.SimpleScript;
+
+/**
+ * Writes the binary names of all compiled {@link MigrationScript} and {@link SimpleScript} implementations to
+ * {@value JavaMigrationLoader#INDEX_RESOURCE}, so that {@link JavaMigrationLoader} can find them without scanning the
+ * classpath.
+ * <p>
+ * The processor is not registered as a service; add it to the compiler's processor path or pass
+ * {@code -processor org.apache.ibatis.migration.processor.MigrationIndexProcessor}. Entries from a previous
+ * (incremental) compilation are kept as long as the class still exists and is still a script.
+ */
+@SupportedAnnotationTypes("*")
+public class MigrationIndexProcessor extends AbstractProcessor {
+
+  private final Set<String> classNames = new TreeSet<>();
+
+  private boolean previousIndexRead;
+
+  private boolean previousIndexFound;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (!previousIndexRead) {
+      previousIndexRead = true;
+      readPreviousIndex();
+    }
+    for (Element element : roundEnv.getRootElements()) {
+      collect(element);
+    }
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    }
+    return false;
+  }
+
+  private void collect(Element element) {
+    if (element.getKind() != ElementKind.CLASS) {
+      return;
+    }
+    TypeElement type = (TypeElement) element;
+    if (isScript(type)) {
+      classNames.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+    }
+    for (Element enclosed : type.getEnclosedElements()) {
+      collect(enclosed);
+    }
+  }
+
+  private boolean isScript(TypeElement type) {
+    return isSubtype(type, MigrationScript.class) || isSubtype(type, SimpleScript.class);
+  }
+
+  private boolean isSubtype(TypeElement type, Class<?> scriptClass) {
+    TypeElement scriptType = processingEnv.getElementUtils().getTypeElement(scriptClass.getName());
+    if (scriptType == null) {
+      return false;
+    }
+    Types types = processingEnv.getTypeUtils();
+    return types.isAssignable(types.erasure(type.asType()), types.erasure(scriptType.asType()));
+  }
+
+  private void readPreviousIndex() {
+    Elements elements = processingEnv.getElementUtils();
+    try {
+      FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          JavaMigrationLoader.INDEX_RESOURCE);
+      try (Reader reader = file.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+        previousIndexFound = true;
+        for (String line; (line = lines.readLine()) != null;) {
+          String className = line.trim();
+          if (className.isEmpty() || className.startsWith("#")) {
+            continue;
+          }
+          TypeElement type = elements.getTypeElement(className.replace('$', '.'));
+          if (type != null && isScript(type)) {
+            classNames.add(className);
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // No previous index.
+    }
+  }
+
+  private void writeIndex() {
+    if (classNames.isEmpty() && !previousIndexFound) {
+      return;
+    }
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          JavaMigrationLoader.INDEX_RESOURCE);
+      try (Writer writer = file.openWriter()) {
+        for (String className : classNames) {
+          writer.write(className);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write " + JavaMigrationLoader.INDEX_RESOURCE + ": " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.ibatis.migration.utils.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class FileMigrationLoaderTest {
+
+  private static final String[] SCRIPTS = {
+      // @formatter:off
+      "-- comment\ncreate table t (id int);\n--//@UNDO\ndrop table t;\n",
+      "create table t (id int);\r\n  --  //  @UNDO ${v}\r\ndrop table t;\r\n-- //@UNDO\r\nsecond;\r\n",
+      "create table t (id int);\r-- //@UNDO\rdrop table t;",
+      "-- //@UNDOX\n--/@UNDO\ncreate table t (id int);\n",
+      "create table t (id int);\n-- //@UNDO",
+      "-- \u00e9t\u00e9 ${v}\ncreate table \u00e9 (id int);\n// //@UNDO\ndrop table \u00e9;\n"
+      // @formatter:on
+  };
+
+  @Test
+  void shouldReadTheSameScriptsThroughTheUndoIndex() throws Exception {
+    assertSameScripts(FileMigrationLoader.DEFAULT_MEMORY_MAP_THRESHOLD);
+  }
+
+  @Test
+  void shouldReadTheSameScriptsWhenMemoryMapped() throws Exception {
+    assertSameScripts(1);
+  }
+
+  private void assertSameScripts(long memoryMapThreshold) throws Exception {
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      large.append("insert into t values (").append(i).append(", '\u00e9\u3042');\n");
+    }
+    large.append("--//@UNDO\n").append("delete from t;\n");
+    File scriptsDir = TestUtil.getTempDir();
+    Properties variables = new Properties();
+    variables.setProperty("v", "value");
+    FileMigrationLoader loader = new FileMigrationLoader(scriptsDir, "utf-8", variables);
+    loader.setMemoryMapThreshold(memoryMapThreshold);
+    for (int i = 0; i <= SCRIPTS.length; i++) {
+      byte[] bytes = (i < SCRIPTS.length ? SCRIPTS[i] : large.toString()).getBytes(StandardCharsets.UTF_8);
+      Change change = new Change(BigDecimal.valueOf(i), null, "test");
+      change.setFilename(i + "_test.sql");
+      Files.write(new File(scriptsDir, change.getFilename()).toPath(), bytes);
+
+      String forward = read(new MigrationReader(new ByteArrayInputStream(bytes), "utf-8", false, variables));
+      String undo = read(new MigrationReader(new ByteArrayInputStream(bytes), "utf-8", true, variables));
+      assertEquals(forward, read(loader.getScriptReader(change, false)));
+      assertEquals(undo, read(loader.getScriptReader(change, true)));
+      // The offset is cached now.
+      assertEquals(forward, read(loader.getScriptReader(change, false)));
+    }
+    assertTrue(TestUtil.deleteDirectory(scriptsDir), "delete temp dir");
+  }
+
+  @Test
+  void shouldReadCompressedScripts() throws Exception {
+    File scriptsDir = TestUtil.getTempDir();
+    Properties variables = new Properties();
+    variables.setProperty("v", "value");
+    try (ZipOutputStream bundle = new ZipOutputStream(
+        Files.newOutputStream(new File(scriptsDir, "history.zip").toPath()))) {
+      for (int i = 0; i < SCRIPTS.length; i++) {
+        byte[] bytes = SCRIPTS[i].getBytes(StandardCharsets.UTF_8);
+        if (i % 2 == 0) {
+          try (OutputStream out = new GZIPOutputStream(
+              Files.newOutputStream(new File(scriptsDir, (i + 1) + "_compressed_script.sql.gz").toPath()))) {
+            out.write(bytes);
+          }
+        } else {
+          bundle.putNextEntry(new ZipEntry("scripts/" + (i + 1) + "_bundled_script.sql"));
+          bundle.write(bytes);
+          bundle.closeEntry();
+        }
+      }
+    }
+    FileMigrationLoader loader = new FileMigrationLoader(scriptsDir, "utf-8", variables);
+    List<Change> migrations = loader.getMigrations();
+    assertEquals(SCRIPTS.length, migrations.size());
+    for (int i = 0; i < SCRIPTS.length; i++) {
+      Change change = migrations.get(i);
+      byte[] bytes = SCRIPTS[i].getBytes(StandardCharsets.UTF_8);
+      assertEquals(BigDecimal.valueOf(i + 1), change.getId());
+      assertEquals(i % 2 == 0 ? "compressed script" : "bundled script", change.getDescription());
+      assertEquals(read(new MigrationReader(new ByteArrayInputStream(bytes), "utf-8", false, variables)),
+          read(loader.getScriptReader(change, false)));
+      assertEquals(read(new MigrationReader(new ByteArrayInputStream(bytes), "utf-8", true, variables)),
+          read(loader.getScriptReader(change, true)));
+      assertEquals(Checksums.sha256(new ByteArrayInputStream(bytes)), loader.getChecksum(change));
+    }
+    assertEquals("history.zip!/scripts/2_bundled_script.sql", migrations.get(1).getFilename());
+    assertTrue(TestUtil.deleteDirectory(scriptsDir), "delete temp dir");
+  }
+
+  @Test
+  void shouldKeepAnIndexOfTheScriptsDirectory() throws Exception {
+    File baseDir = TestUtil.getTempDir();
+    File scriptsDir = new File(baseDir, "scripts");
+    assertTrue(scriptsDir.mkdir());
+    long old = System.currentTimeMillis() - 60000;
+    writeScript(scriptsDir, "001_create_changelog.sql", old);
+    writeScript(scriptsDir, "002_first_migration.sql", old);
+    writeScript(scriptsDir, "bootstrap.sql", old);
+    assertTrue(scriptsDir.setLastModified(old));
+
+    FileMigrationLoader loader = new FileMigrationLoader(scriptsDir, "utf-8", new Properties());
+    loader.setUseIndex(true);
+    File indexFile = new File(baseDir, "scripts.index");
+    assertEquals(List.of("001_create_changelog.sql", "002_first_migration.sql"), filenames(loader.getMigrations()));
+    assertTrue(indexFile.exists());
+    String index = new String(Files.readAllBytes(indexFile.toPath()), StandardCharsets.UTF_8);
+    assertTrue(index.contains("first migration"));
+
+    // Nothing changed, so the index is used as is.
+    assertTrue(indexFile.setLastModified(old));
+    assertEquals(List.of("001_create_changelog.sql", "002_first_migration.sql"), filenames(loader.getMigrations()));
+    assertEquals(old / 1000, indexFile.lastModified() / 1000);
+
+    writeScript(scriptsDir, "003_second_migration.sql", old);
+    assertTrue(scriptsDir.setLastModified(old + 1000));
+    List<Change> migrations = loader.getMigrations();
+    assertEquals(List.of("001_create_changelog.sql", "002_first_migration.sql", "003_second_migration.sql"),
+        filenames(migrations));
+    assertEquals("second migration", migrations.get(2).getDescription());
+    assertEquals(BigDecimal.valueOf(3), migrations.get(2).getId());
+    assertTrue(TestUtil.deleteDirectory(baseDir), "delete temp dir");
+  }
+
+  @Test
+  void shouldParseIndexedScriptsWithTheOverriddenMethod() throws Exception {
+    File baseDir = TestUtil.getTempDir();
+    File scriptsDir = new File(baseDir, "scripts");
+    assertTrue(scriptsDir.mkdir());
+    long old = System.currentTimeMillis() - 60000;
+    writeScript(scriptsDir, "001_create_changelog.sql", old);
+    assertTrue(scriptsDir.setLastModified(old));
+    FileMigrationLoader plainLoader = new FileMigrationLoader(scriptsDir, "utf-8", new Properties());
+    plainLoader.setUseIndex(true);
+    assertEquals("create changelog", plainLoader.getMigrations().get(0).getDescription());
+    assertTrue(new File(baseDir, "scripts.index").exists());
+
+    // The index is current, but the subclass must still parse the filenames its own way.
+    FileMigrationLoader loader = new FileMigrationLoader(scriptsDir, "utf-8", new Properties()) {
+      @Override
+      protected Change parseChangeFromFilename(String filename) {
+        Change change = super.parseChangeFromFilename(filename);
+        change.setDescription(change.getDescription().toUpperCase(Locale.ROOT));
+        return change;
+      }
+    };
+    loader.setUseIndex(true);
+    assertEquals("CREATE CHANGELOG", loader.getMigrations().get(0).getDescription());
+    assertTrue(TestUtil.deleteDirectory(baseDir), "delete temp dir");
+  }
+
+  private void writeScript(File scriptsDir, String filename, long lastModified) throws IOException {
+    File file = new File(scriptsDir, filename);
+    Files.write(file.toPath(), SCRIPTS[0].getBytes(StandardCharsets.UTF_8));
+    assertTrue(file.setLastModified(lastModified));
+  }
+
+  private List<String> filenames(List<Change> migrations) {
+    return migrations.stream().map(Change::getFilename).collect(Collectors.toList());
+  }
+
+  private String read(Reader reader) throws IOException {
+    try (Reader in = reader) {
+      StringBuilder buffer = new StringBuilder();
+      char[] cbuf = new char[64];
+      int res;
+      while ((res = in.read(cbuf)) != -1) {
+        buffer.append(cbuf, 0, res);
+      }
+      return buffer.toString();
+    }
+  }
+}
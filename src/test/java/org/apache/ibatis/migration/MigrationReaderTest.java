@@ -456,6 +456,30 @@ class MigrationReaderTest {
     }
   }
 
+  @Test
+  void shouldReadLargeScriptInSmallChunks() throws Exception {
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      script.append("insert into t values (").append(i).append(");\n");
+      if (i % 500 == 0) {
+        script.append("-- ").append("x".repeat(20000)).append('\n');
+      }
+    }
+    String expected = script.toString();
+    script.append("--//@UNDO\n").append("delete from t;\n");
+
+    try (InputStream stream = strToInputStream(script.toString());
+        MigrationReader reader = new MigrationReader(stream, charset, false, null)) {
+      StringBuilder buffer = new StringBuilder();
+      char[] cbuf = new char[7];
+      int res;
+      while ((res = reader.read(cbuf)) != -1) {
+        buffer.append(cbuf, 0, res);
+      }
+      assertEquals(expected, buffer.toString());
+    }
+  }
+
   @Test
   void shouldRetainLineBreakAfterDelimiter() throws Exception {
     // @formatter:off
@@ -0,0 +1,118 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PooledConnectionProviderTest {
+
+  private final List<FakeConnection> opened = new ArrayList<>();
+
+  @Test
+  void shouldReuseReturnedConnections() throws Exception {
+    PooledConnectionProvider pool = new PooledConnectionProvider(this::open);
+    try (Connection con = pool.getConnection()) {
+      con.setAutoCommit(false);
+      con.commit();
+    }
+    try (Connection con = pool.getConnection()) {
+      assertTrue(con.getAutoCommit());
+    }
+    assertEquals(1, opened.size());
+    assertEquals(1, opened.get(0).rollbacks);
+    assertFalse(opened.get(0).closed);
+    pool.close();
+    assertTrue(opened.get(0).closed);
+  }
+
+  @Test
+  void shouldOpenExtraConnectionsWhenAllAreInUse() throws Exception {
+    PooledConnectionProvider pool = new PooledConnectionProvider(this::open);
+    pool.setMaximumSize(1);
+    try (Connection outer = pool.getConnection()) {
+      Connection inner = pool.getConnection();
+      inner.close();
+      assertTrue(inner.isClosed());
+      assertThrows(SQLException.class, inner::commit);
+      assertTrue(opened.get(1).closed);
+      assertFalse(outer.isClosed());
+    }
+    assertFalse(opened.get(0).closed);
+    pool.close();
+  }
+
+  @Test
+  void shouldReplaceInvalidAndIdleConnections() throws Exception {
+    PooledConnectionProvider pool = new PooledConnectionProvider(this::open);
+    pool.getConnection().close();
+    opened.get(0).valid = false;
+    pool.getConnection().close();
+    assertEquals(2, opened.size());
+    assertTrue(opened.get(0).closed);
+
+    pool.setIdleTimeout(1);
+    Thread.sleep(10);
+    pool.getConnection().close();
+    assertEquals(3, opened.size());
+    assertTrue(opened.get(1).closed);
+    pool.close();
+  }
+
+  private Connection open() {
+    FakeConnection connection = new FakeConnection();
+    opened.add(connection);
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "getAutoCommit":
+              return connection.autoCommit;
+            case "setAutoCommit":
+              connection.autoCommit = (Boolean) args[0];
+              return null;
+            case "rollback":
+              connection.rollbacks++;
+              return null;
+            case "isValid":
+              return connection.valid;
+            case "isClosed":
+              return connection.closed;
+            case "close":
+              connection.closed = true;
+              return null;
+            default:
+              return null;
+          }
+        });
+  }
+
+  private static class FakeConnection {
+    boolean autoCommit = true;
+    boolean valid = true;
+    boolean closed;
+    int rollbacks;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+class VariableReplacerTest {
+
+  @Test
+  void shouldReplaceLikeTheLiveReplacer() {
+    Map<String, String> first = new HashMap<>();
+    first.put("a", "A");
+    first.put("b}c", "BC");
+    Properties second = new Properties();
+    second.put("a", "ignored");
+    second.put("d", "D");
+    List<Map<? extends Object, ? extends Object>> variables = Arrays.asList(first, null, second);
+    VariableReplacer live = new VariableReplacer(variables);
+    VariableReplacer compiled = VariableReplacer.compile(variables);
+    for (String text : new String[] { "", "no variables", "${a} ${d} ${b\\}c}", "\\${a} ${x} ${unclosed", "${}${a}" }) {
+      assertEquals(live.replace(text), compiled.replace(text));
+    }
+    assertEquals("A D BC", compiled.replace("${a} ${d} ${b\\}c}"));
+    assertEquals("${a} ${x} ${unclosed", compiled.replace("\\${a} ${x} ${unclosed"));
+  }
+
+  @Test
+  void shouldSnapshotVariablesOnFirstUse() {
+    Properties variables = new Properties();
+    VariableReplacer compiled = VariableReplacer.compile(variables);
+    variables.put("a", "A");
+    assertEquals("A", compiled.replace("${a}"));
+    variables.put("a", "changed");
+    assertEquals("A", compiled.replace("${a}"));
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.hook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.SimpleBindings;
+
+import org.apache.ibatis.migration.options.SelectedPaths;
+import org.apache.ibatis.migration.utils.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class Jsr223HookScriptTest {
+
+  @Test
+  void shouldCompileOnceAndReloadWhenModified() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      File file = new File(dir, "hook.properties");
+      Files.writeString(file.toPath(), "a=1", StandardCharsets.UTF_8);
+      Jsr223HookScript hook = new Jsr223HookScript(CountingEngineFactory.NAME, file, "UTF-8",
+          new String[] { "b=2" }, new SelectedPaths(), new Properties(),
+          new PrintStream(new ByteArrayOutputStream(), true, "UTF-8"));
+      int engines = CountingEngineFactory.ENGINES.get();
+      int compilations = CountingEngineFactory.COMPILATIONS.get();
+
+      Map<String, Object> bindingMap = new HashMap<>();
+      hook.execute(bindingMap);
+      hook.execute(bindingMap);
+      assertEquals("1", bindingMap.get("a"));
+      assertEquals("2", bindingMap.get("b"));
+      assertEquals(engines + 1, CountingEngineFactory.ENGINES.get());
+      assertEquals(compilations + 1, CountingEngineFactory.COMPILATIONS.get());
+
+      Files.writeString(file.toPath(), "a=3", StandardCharsets.UTF_8);
+      file.setLastModified(file.lastModified() + 2000);
+      hook.execute(bindingMap);
+      assertEquals("3", bindingMap.get("a"));
+      assertEquals(engines + 1, CountingEngineFactory.ENGINES.get());
+      assertEquals(compilations + 2, CountingEngineFactory.COMPILATIONS.get());
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+
+  /**
+   * An engine for scripts made of {@code key=value} lines, registered in {@code META-INF/services}.
+   */
+  public static class CountingEngineFactory implements ScriptEngineFactory {
+    static final String NAME = "counting-test";
+    static final AtomicInteger ENGINES = new AtomicInteger();
+    static final AtomicInteger COMPILATIONS = new AtomicInteger();
+
+    @Override
+    public String getEngineName() {
+      return NAME;
+    }
+
+    @Override
+    public String getEngineVersion() {
+      return "1";
+    }
+
+    @Override
+    public List<String> getExtensions() {
+      return List.of();
+    }
+
+    @Override
+    public List<String> getMimeTypes() {
+      return List.of();
+    }
+
+    @Override
+    public List<String> getNames() {
+      return List.of(NAME);
+    }
+
+    @Override
+    public String getLanguageName() {
+      return NAME;
+    }
+
+    @Override
+    public String getLanguageVersion() {
+      return "1";
+    }
+
+    @Override
+    public Object getParameter(String key) {
+      return ScriptEngine.NAME.equals(key) ? NAME : null;
+    }
+
+    @Override
+    public String getMethodCallSyntax(String obj, String m, String... args) {
+      return null;
+    }
+
+    @Override
+    public String getOutputStatement(String toDisplay) {
+      return null;
+    }
+
+    @Override
+    public String getProgram(String... statements) {
+      return String.join("\n", statements);
+    }
+
+    @Override
+    public ScriptEngine getScriptEngine() {
+      ENGINES.incrementAndGet();
+      return new CountingEngine(this);
+    }
+  }
+
+  static class CountingEngine extends AbstractScriptEngine implements Compilable {
+    private final ScriptEngineFactory factory;
+
+    CountingEngine(ScriptEngineFactory factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public Object eval(String script, ScriptContext context) {
+      Bindings bindings = context.getBindings(ScriptContext.ENGINE_SCOPE);
+      for (String line : script.split("\n")) {
+        int sep = line.indexOf('=');
+        if (sep > -1) {
+          bindings.put(line.substring(0, sep), line.substring(sep + 1));
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Object eval(Reader reader, ScriptContext context) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Bindings createBindings() {
+      return new SimpleBindings();
+    }
+
+    @Override
+    public ScriptEngineFactory getFactory() {
+      return factory;
+    }
+
+    @Override
+    public CompiledScript compile(String script) {
+      CountingEngineFactory.COMPILATIONS.incrementAndGet();
+      return new CompiledScript() {
+        @Override
+        public Object eval(ScriptContext context) {
+          return CountingEngine.this.eval(script, context);
+        }
+
+        @Override
+        public ScriptEngine getEngine() {
+          return CountingEngine.this;
+        }
+      };
+    }
+
+    @Override
+    public CompiledScript compile(Reader script) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.ibatis.migration.utils.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class DefaultVFSTest {
+
+  @Test
+  void shouldListJarEntriesUnderPath() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      File jar = new File(dir, "scripts.jar");
+      try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+        for (String name : new String[] { "a/", "a/b/", "a/b/One.class", "a/b/c/Two.class", "a/bc/Three.class",
+            "x/Four.class" }) {
+          out.putNextEntry(new JarEntry(name));
+          out.closeEntry();
+        }
+      }
+      URL url = new URL("jar:" + jar.toURI().toURL() + "!/a/b");
+      List<String> resources = new DefaultVFS().list(url, "a/b");
+      assertEquals(List.of("a/b/One.class", "a/b/c/Two.class"), resources);
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.apache.ibatis.migration.utils.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class JarListingCacheTest {
+
+  @Test
+  void shouldReadJarAgainWhenItChanges() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      File jar = new File(dir, "a.jar");
+      writeJar(jar, "p/One.class");
+      JarListingCache cache = new JarListingCache(4);
+      assertEquals(List.of("p/One.class"), cache.list(jar, "p"));
+
+      writeJar(jar, "p/One.class", "p/Two.class");
+      jar.setLastModified(jar.lastModified() + 2000);
+      assertEquals(List.of("p/One.class", "p/Two.class"), cache.list(jar, "/p/"));
+      assertEquals(2, cache.size());
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedJar() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      File a = new File(dir, "a.jar");
+      File b = new File(dir, "b.jar");
+      writeJar(a, "p/A.class");
+      writeJar(b, "p/B.class", "q/C.class");
+      JarListingCache cache = new JarListingCache(1);
+      cache.list(a, "p");
+      assertEquals(List.of("q/C.class"), cache.list(b, "q"));
+      assertEquals(1, cache.size());
+      assertEquals(List.of("p/A.class"), cache.list(a, "p"));
+      assertEquals(1, cache.size());
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+
+  private static void writeJar(File jar, String... names) throws IOException {
+    try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+      for (String name : names) {
+        out.putNextEntry(new JarEntry(name));
+        out.closeEntry();
+      }
+    }
+  }
+}
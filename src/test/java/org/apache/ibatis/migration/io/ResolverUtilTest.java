@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.migration.MigrationScript;
+import org.apache.ibatis.migration.SimpleScript;
+import org.junit.jupiter.api.Test;
+
+class ResolverUtilTest {
+
+  private static final String PACKAGE = "org.apache.ibatis.migration.runtime_migration.scripts_java";
+
+  @Test
+  void shouldNotLoadClassesThatCannotMatch() throws Exception {
+    Set<String> loaded = new TreeSet<>();
+    ClassLoader loader = new ClassLoader(Thread.currentThread().getContextClassLoader()) {
+      @Override
+      protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        loaded.add(name);
+        return super.loadClass(name, resolve);
+      }
+    };
+    ResolverUtil<MigrationScript> resolver = new ResolverUtil<>();
+    resolver.setClassLoader(loader);
+    resolver.findImplementations(MigrationScript.class, PACKAGE);
+
+    Set<String> found = resolver.getClasses().stream().map(Class::getSimpleName).collect(Collectors.toSet());
+    assertEquals(Set.of("V001_CreateChangelog", "V002_CreateFirstTable", "V003_CreateSecondTable"), found);
+    assertFalse(loaded.contains(PACKAGE + ".Bootstrap"));
+    assertFalse(loaded.contains(PACKAGE + ".JavaMigrationLoaderTest"));
+  }
+
+  @Test
+  void shouldMatchAnyOfSeveralParents() throws Exception {
+    ResolverUtil<Object> resolver = new ResolverUtil<>();
+    resolver.find(new ResolverUtil.IsA(MigrationScript.class, SimpleScript.class), PACKAGE);
+    Set<String> found = resolver.getClasses().stream().map(Class::getSimpleName).collect(Collectors.toSet());
+    assertEquals(Set.of("Bootstrap", "V001_CreateChangelog", "V002_CreateFirstTable", "V003_CreateSecondTable"),
+        found);
+  }
+}
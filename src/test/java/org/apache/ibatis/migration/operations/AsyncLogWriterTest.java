@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncLogWriterTest {
+
+  @Test
+  void shouldWriteEverythingInOrderOnFlush() throws Exception {
+    StringWriter target = new StringWriter();
+    StringBuilder expected = new StringBuilder();
+    try (PrintWriter writer = new PrintWriter(new AsyncLogWriter(target, 16, 1000))) {
+      for (int i = 0; i < 1000; i++) {
+        writer.println("line " + i);
+        expected.append("line ").append(i).append(System.lineSeparator());
+      }
+      writer.flush();
+      assertEquals(expected.toString(), target.toString());
+    }
+  }
+
+  @Test
+  void shouldFlushAfterInterval() throws Exception {
+    StringWriter target = new StringWriter();
+    try (Writer writer = new AsyncLogWriter(target, 1024, 10)) {
+      writer.write("select 1");
+      for (int i = 0; i < 500 && target.getBuffer().length() == 0; i++) {
+        Thread.sleep(10);
+      }
+      assertEquals("select 1", target.toString());
+    }
+  }
+
+  @Test
+  void shouldReportWriteFailureOnFlush() throws Exception {
+    Writer failing = new Writer() {
+      @Override
+      public void write(char[] cbuf, int off, int len) throws IOException {
+        throw new IOException("disk full");
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    AsyncLogWriter writer = new AsyncLogWriter(failing, 16, 1000);
+    writer.write("select 1");
+    IOException e = assertThrows(IOException.class, writer::flush);
+    assertEquals("disk full", e.getMessage());
+  }
+}
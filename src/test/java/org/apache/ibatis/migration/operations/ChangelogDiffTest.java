@@ -0,0 +1,106 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.migration.Change;
+import org.junit.jupiter.api.Test;
+
+class ChangelogDiffTest {
+
+  private static final String LS = System.lineSeparator();
+
+  @Test
+  void shouldReportSkippedAndMissingScripts() {
+    List<Change> migrations = List.of(script("1"), script("2"), script("3"), script("4"));
+    List<Change> changelog = List.of(applied("1"), applied("2.5"), applied("3"));
+    ChangelogDiff diff = new ChangelogDiff(changelog, migrations);
+    assertEquals(List.of(applied("1"), applied("3")), diff.getApplied());
+    assertEquals(List.of(script("2"), script("4")), diff.getPending());
+    assertEquals(List.of(script("2")), diff.getSkipped());
+    assertEquals(List.of(applied("2.5")), diff.getMissing());
+    assertEquals("WARNING: Missing migration script. id='2.5', description='applied 2.5'." + LS
+        + "WARNING: Migration script '2_script.sql' was not applied to the database." + LS, diff.getWarnings());
+  }
+
+  @Test
+  void shouldReportChangesInIdOrderWhileReadingTheChangelog() {
+    List<Change> migrations = List.of(script("1"), script("2"), script("3"), script("4"));
+    List<String> events = new ArrayList<>();
+    ChangelogDiff diff = new ChangelogDiff(migrations, false);
+    diff.setListener(new ChangelogDiff.Listener() {
+      @Override
+      public void applied(Change changeInDb) {
+        events.add("A:" + changeInDb.getId());
+      }
+
+      @Override
+      public void pending(Change script) {
+        events.add("P:" + script.getId());
+      }
+
+      @Override
+      public void missing(Change changeInDb) {
+        events.add("M:" + changeInDb.getId());
+      }
+    });
+    diff.add(applied("1"));
+    diff.add(applied("2.5"));
+    diff.add(applied("3"));
+    diff.finish();
+    assertEquals(List.of("A:1", "P:2", "M:2.5", "A:3", "P:4"), events);
+    assertEquals(2, diff.getAppliedCount());
+    assertTrue(diff.getApplied().isEmpty());
+    assertEquals(applied("3"), diff.getLastInDb());
+    assertEquals(List.of(script("2")), diff.getSkipped());
+  }
+
+  @Test
+  void shouldDiffLargeChangelogs() {
+    int size = 100_000;
+    List<Change> migrations = new ArrayList<>(size);
+    List<Change> changelog = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      migrations.add(script(String.valueOf(i)));
+      if (i % 10 != 0) {
+        changelog.add(applied(String.valueOf(i)));
+      }
+    }
+    changelog.add(applied(String.valueOf(size)));
+    ChangelogDiff diff = new ChangelogDiff(changelog, migrations);
+    assertEquals(size - size / 10, diff.getApplied().size());
+    assertEquals(size / 10, diff.getPending().size());
+    assertEquals(size / 10, diff.getSkipped().size());
+    assertEquals(List.of(applied(String.valueOf(size))), diff.getMissing());
+    assertTrue(diff.getWarnings().startsWith("WARNING: Migration script '0_script.sql'"));
+  }
+
+  private static Change script(String id) {
+    Change change = new Change(new BigDecimal(id));
+    change.setFilename(id + "_script.sql");
+    return change;
+  }
+
+  private static Change applied(String id) {
+    return new Change(new BigDecimal(id), "2026-01-01 00:00:00", "applied " + id);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ExecutionReportTest {
+
+  private static final String LS = System.lineSeparator();
+
+  private static final String LONG_SQL = "update very_long_table_name set first_column = 1, second_column = 2"
+      + " where id in (select id from other_table)";
+
+  @Test
+  void shouldListSlowAndTimedOutStatements() {
+    ExecutionReport report = new ExecutionReport(100);
+    report.setScript("001_first.sql");
+    report.statementExecuted(new ExecutedStatement(1, 1, "create table t (id int)", 5, -1));
+    report.statementExecuted(new ExecutedStatement(2, 3, "insert into t\n  values (1)", 150, 3));
+    report.setScript("002_second.sql");
+    report.statementExecuted(new ExecutedStatement(1, 1, LONG_SQL, 100, 7));
+    report.statementExecuted(new ExecutedStatement(2, 1, "select 1", 99, -1));
+    report.statementTimedOut(new ExecutedStatement(3, 1, "select slow", 1000, -1));
+    // @formatter:off
+    assertEquals("Executed 6 statement(s) in 354 ms, 10 row(s) affected." + LS
+        + "Slow statements (100 ms or more):" + LS
+        + "  001_first.sql #2 150 ms: insert into t values (1)" + LS
+        + "  002_second.sql #1 100 ms: " + LONG_SQL.substring(0, 60) + "..." + LS
+        + "Timed out statements:" + LS
+        + "  002_second.sql #3 cancelled after 1000 ms: select slow", report.summary());
+    // @formatter:on
+  }
+
+  @Test
+  void shouldNotListSlowStatementsWithoutThreshold() {
+    ExecutionReport report = new ExecutionReport(0);
+    report.setScript("001_first.sql");
+    report.statementExecuted(new ExecutedStatement(1, 1, "select 1", 5000, -1));
+    assertEquals("Executed 1 statement(s) in 5000 ms, 0 row(s) affected.", report.summary());
+  }
+}
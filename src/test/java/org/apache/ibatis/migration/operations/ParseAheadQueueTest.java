@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ParseAheadQueueTest {
+
+  @Test
+  void shouldReturnTheSameTokensAsTheParser() throws Exception {
+    StringBuilder script = new StringBuilder("-- @DELIMITER $\ncreate trigger t begin select 1; end$\n");
+    script.append("-- @DELIMITER ;\n");
+    for (int i = 0; i < 1000; i++) {
+      script.append("insert into t values (").append(i).append(");\n");
+    }
+    script.append("select");
+    List<String> expected = parse(new ScriptParser(new StringReader(script.toString()), ";", false));
+    try (ParseAheadQueue queue = new ParseAheadQueue(new ScriptParser(new StringReader(script.toString()), ";", false),
+        1)) {
+      assertEquals(expected, parse(queue));
+      assertNull(queue.next());
+      assertEquals(";", queue.getDelimiter());
+      assertEquals("select" + System.lineSeparator(), queue.getUnterminatedStatement());
+    }
+  }
+
+  @Test
+  void shouldRethrowParseErrorsAfterThePrecedingStatements() throws Exception {
+    Reader failing = new Reader() {
+      private final Reader script = new StringReader("select 1;\nselect 2;\n");
+
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        int n = script.read(cbuf, off, len);
+        if (n == -1) {
+          throw new IOException("broken");
+        }
+        return n;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    try (ParseAheadQueue queue = new ParseAheadQueue(new ScriptParser(failing, ";", false), 4)) {
+      assertEquals("select 1" + System.lineSeparator(), queue.next().getText());
+      assertEquals("select 2" + System.lineSeparator(), queue.next().getText());
+      assertEquals("broken", assertThrows(IOException.class, queue::next).getMessage());
+    }
+  }
+
+  @Test
+  void shouldStopParsingWhenClosed() throws Exception {
+    String script = "select 1;\n".repeat(10_000);
+    ParseAheadQueue queue = new ParseAheadQueue(new ScriptParser(new StringReader(script), ";", false), 2);
+    queue.next();
+    queue.close();
+  }
+
+  private static List<String> parse(StatementSource parser) throws IOException {
+    List<String> tokens = new ArrayList<>();
+    for (ScriptParser.Token token; (token = parser.next()) != null;) {
+      tokens.add((token.isComment() ? "C:" : "S:") + token.getText() + "|" + parser.getDelimiter());
+    }
+    return tokens;
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ScriptParserTest {
+
+  private static final String LS = System.lineSeparator();
+
+  @Test
+  void shouldSplitStatementsAndReturnCommentLines() throws Exception {
+    // @formatter:off
+    String script = "-- comment\n"
+        + "select 1;\n"
+        + "\n"
+        + "select 2; select 3; -- trailing\n";
+    // @formatter:on
+    List<String> tokens = parse(new ScriptParser(new StringReader(script), ";", false));
+    assertEquals(List.of("C:-- comment", "S:select 1" + LS, "S:select 2" + LS, "S:select 3" + LS), tokens);
+    tokens = parse(new ScriptParser(new StringReader("select 1;select 2;\n"), ";", false));
+    assertEquals(List.of("S:select 1" + LS, "S:select 2" + LS), tokens);
+  }
+
+  @Test
+  void shouldIgnoreDelimiterInLiteralsAndComments() throws Exception {
+    // @formatter:off
+    String script = "create table t (\n"
+        + "  -- c\n"
+        + "  id int -- x;y\n"
+        + ");\n"
+        + "insert into t values ('a;\n"
+        + "\n"
+        + "b', \"c;\");\n"
+        + "/* block; */ select 1;\n";
+    // @formatter:on
+    List<String> tokens = parse(new ScriptParser(new StringReader(script), ";", false));
+    assertEquals(List.of("C:-- c", "S:create table t (" + LS + "  id int -- x;y" + LS + ")" + LS,
+        "S:insert into t values ('a;" + LS + LS + "b', \"c;\")" + LS, "S:/* block; */ select 1" + LS), tokens);
+  }
+
+  @Test
+  void shouldHonorBackslashEscapesInQuotes() throws Exception {
+    // @formatter:off
+    String script = "insert into t values ('it\\'s; ok');\n"
+        + "insert into t values ('c:\\\\', \"a\\\";b\");\n";
+    // @formatter:on
+    List<String> tokens = parse(new ScriptParser(new StringReader(script), ";", false, true));
+    assertEquals(List.of("S:insert into t values ('it\\'s; ok')" + LS,
+        "S:insert into t values ('c:\\\\', \"a\\\";b\")" + LS), tokens);
+  }
+
+  @Test
+  void shouldTreatBackslashAsOrdinaryCharacterByDefault() throws Exception {
+    String script = "insert into t values ('c:\\');\nselect 1;\n";
+    List<String> tokens = parse(new ScriptParser(new StringReader(script), ";", false));
+    assertEquals(List.of("S:insert into t values ('c:\\')" + LS, "S:select 1" + LS), tokens);
+  }
+
+  @Test
+  void shouldIgnoreDelimiterInDollarQuotes() throws Exception {
+    // @formatter:off
+    String script = "create function f() returns int as $body$ begin; return 1; end; $body$ language plpgsql;\n"
+        + "select $1, $$x;y$$;\n";
+    // @formatter:on
+    List<String> tokens = parse(new ScriptParser(new StringReader(script), ";", false));
+    assertEquals(
+        List.of("S:create function f() returns int as $body$ begin; return 1; end; $body$ language plpgsql" + LS,
+            "S:select $1, $$x;y$$" + LS),
+        tokens);
+  }
+
+  @Test
+  void shouldApplyDelimiterDirective() throws Exception {
+    // @formatter:off
+    String script = "-- @DELIMITER $\n"
+        + "create trigger t begin select 1; end$\n"
+        + "-- @DELIMITER ;\n"
+        + "select 1;\n";
+    // @formatter:on
+    ScriptParser parser = new ScriptParser(new StringReader(script), ";", false);
+    List<String> tokens = parse(parser);
+    assertEquals(List.of("C:-- @DELIMITER $", "S:create trigger t begin select 1; end" + LS, "C:-- @DELIMITER ;",
+        "S:select 1" + LS), tokens);
+    assertEquals(";", parser.getDelimiter());
+  }
+
+  @Test
+  void shouldSplitOnFullLineDelimiter() throws Exception {
+    // @formatter:off
+    String script = "create proc p\n"
+        + "select 1;\n"
+        + "GO\n"
+        + "  GO  \n"
+        + "select 2\n"
+        + "GO";
+    // @formatter:on
+    ScriptParser parser = new ScriptParser(new StringReader(script), "GO", true);
+    List<String> tokens = parse(parser);
+    assertEquals(List.of("S:create proc p" + LS + "select 1;" + LS, "S:select 2" + LS), tokens);
+    assertNull(parser.getUnterminatedStatement());
+  }
+
+  @Test
+  void shouldReportUnterminatedStatement() throws Exception {
+    ScriptParser parser = new ScriptParser(new StringReader("select 1;\r\nselect\r\n2"), ";", false);
+    List<String> tokens = parse(parser);
+    assertEquals(List.of("S:select 1" + LS), tokens);
+    assertEquals("select" + LS + "2" + LS, parser.getUnterminatedStatement());
+  }
+
+  private List<String> parse(ScriptParser parser) throws IOException {
+    List<String> tokens = new ArrayList<>();
+    for (ScriptParser.Token token; (token = parser.next()) != null;) {
+      tokens.add((token.isComment() ? "C:" : "S:") + token.getText());
+    }
+    return tokens;
+  }
+}
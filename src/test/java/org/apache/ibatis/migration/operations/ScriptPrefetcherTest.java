@@ -0,0 +1,84 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.MigrationLoader;
+import org.junit.jupiter.api.Test;
+
+class ScriptPrefetcherTest {
+
+  @Test
+  void shouldReadScriptsAheadThroughABoundedBuffer() throws Exception {
+    String large = "select 1;\n".repeat(10_000);
+    List<Change> changes = List.of(new Change(BigDecimal.valueOf(1)), new Change(BigDecimal.valueOf(2)),
+        new Change(BigDecimal.valueOf(10)));
+    MigrationLoader loader = new MigrationLoader() {
+      @Override
+      public List<Change> getMigrations() {
+        return changes;
+      }
+
+      @Override
+      public Reader getScriptReader(Change change, boolean undo) {
+        return new StringReader(change.getId().intValue() == 2 ? large : "script " + change.getId());
+      }
+
+      @Override
+      public Reader getBootstrapReader() {
+        return null;
+      }
+
+      @Override
+      public Reader getOnAbortReader() {
+        return null;
+      }
+    };
+    try (ScriptPrefetcher prefetcher = new ScriptPrefetcher(loader, changes, 1)) {
+      assertEquals("script 1", read(prefetcher.getScriptReader(changes.get(0)), Integer.MAX_VALUE));
+      // A script that is not read to the end is skipped by the next reader.
+      assertEquals("select 1;", read(prefetcher.getScriptReader(changes.get(1)), 9));
+      assertEquals("script 10", read(prefetcher.getScriptReader(changes.get(2)), Integer.MAX_VALUE));
+    }
+    try (ScriptPrefetcher prefetcher = new ScriptPrefetcher(loader, changes, 16384)) {
+      prefetcher.getScriptReader(changes.get(0)).close();
+      assertEquals(large, read(prefetcher.getScriptReader(changes.get(1)), Integer.MAX_VALUE));
+    }
+  }
+
+  private static String read(Reader reader, int max) throws IOException {
+    try (reader) {
+      StringBuilder result = new StringBuilder();
+      char[] buffer = new char[100];
+      while (result.length() < max) {
+        int n = reader.read(buffer, 0, Math.min(buffer.length, max - result.length()));
+        if (n == -1) {
+          break;
+        }
+        result.append(buffer, 0, n);
+      }
+      return result.toString();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ScriptRunnerTest {
+
+  // @formatter:off
+  private static final String BATCH_SCRIPT = "-- @BATCH size=3\n"
+      + "insert into t values (1);\n"
+      + "insert into t values (2);\n"
+      + "insert into t (id) values (1);\n"
+      + "insert into t values (3);\n"
+      + "-- @ENDBATCH\n";
+  // @formatter:on
+
+  private Connection connection;
+  private StringWriter log;
+  private final List<String> executed = new ArrayList<>();
+
+  @BeforeEach
+  void setup() throws Exception {
+    connection = DriverManager.getConnection("jdbc:hsqldb:mem:scriptrunnertest", "sa", "");
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("create table t (id int primary key)");
+    }
+    log = new StringWriter();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("shutdown");
+    }
+    connection.close();
+  }
+
+  @Test
+  void shouldExecuteStatementsInBatches() throws Exception {
+    // @formatter:off
+    String script = "-- @BATCH size=2\n"
+        + "insert into t values (1);\n"
+        + "insert into t values (2);\n"
+        + "insert into t values (3);\n"
+        + "-- @ENDBATCH\n"
+        + "insert into t values (4);\n";
+    // @formatter:on
+    ScriptRunner runner = createRunner(false, true);
+    runner.runScript(new StringReader(script));
+    assertTrue(log.toString().contains("Executed batch of 2 statements, 2 rows affected."));
+    assertTrue(log.toString().contains("Executed batch of 1 statements, 1 rows affected."));
+    assertEquals(List.of("1+2", "3+1", "4+1"), executed);
+    assertEquals("4", query("select count(*) from t"));
+  }
+
+  @Test
+  void shouldReportTheFailingStatementOfABatch() throws Exception {
+    ScriptRunner runner = createRunner(false, true);
+    RuntimeException e = assertThrows(RuntimeException.class, () -> runner.runScript(new StringReader(BATCH_SCRIPT)));
+    assertTrue(e.getMessage().contains("Error executing statement 3 of batch: insert into t (id) values (1)"),
+        e.getMessage());
+    assertEquals("0", query("select count(*) from t"));
+  }
+
+  @Test
+  void shouldRunAFailedBatchAgainOneStatementAtATime() throws Exception {
+    ScriptRunner runner = createRunner(false, false);
+    runner.runScript(new StringReader(BATCH_SCRIPT));
+    String output = log.toString();
+    assertTrue(output.contains("Error executing: insert into t (id) values (1)"), output);
+    // The statements that succeeded in the batch were rolled back, so they must not fail as duplicates.
+    assertFalse(output.contains("Error executing: insert into t values"), output);
+    assertEquals(List.of("1+1", "2+1", "4+1"), executed);
+    assertEquals("3", query("select count(*) from t"));
+    assertEquals("6", query("select sum(id) from t"));
+  }
+
+  @Test
+  void shouldRunTheRestOfAFailedBatchInAutoCommitMode() throws Exception {
+    ScriptRunner runner = createRunner(true, false);
+    runner.runScript(new StringReader(BATCH_SCRIPT));
+    String output = log.toString();
+    assertTrue(output.contains("Error executing: insert into t (id) values (1)"), output);
+    assertFalse(output.contains("Error executing: insert into t values"), output);
+    assertEquals(List.of("1+2", "4+1"), executed);
+    assertEquals("3", query("select count(*) from t"));
+    assertEquals("6", query("select sum(id) from t"));
+  }
+
+  private ScriptRunner createRunner(boolean autoCommit, boolean stopOnError) {
+    ScriptRunner runner = new ScriptRunner(connection);
+    PrintWriter writer = new PrintWriter(log);
+    runner.setLogWriter(writer);
+    runner.setErrorLogWriter(writer);
+    runner.setAutoCommit(autoCommit);
+    runner.setStopOnError(stopOnError);
+    runner.addStatementListener(
+        statement -> executed.add(statement.getIndex() + "+" + statement.getStatementCount()));
+    return runner;
+  }
+
+  private String query(String sql) throws SQLException {
+    try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+}
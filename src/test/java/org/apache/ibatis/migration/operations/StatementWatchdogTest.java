@@ -0,0 +1,151 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class StatementWatchdogTest {
+
+  private final CountDownLatch cancelled = new CountDownLatch(1);
+  private final List<String> timedOut = new ArrayList<>();
+
+  @Test
+  void shouldCancelAStatementThatExceedsTheStatementTimeout() throws Exception {
+    ScriptRunner runner = createRunner();
+    runner.setStatementTimeout(1);
+    assertTimedOut(runner, "Statement timed out after 1 seconds.");
+  }
+
+  @Test
+  void shouldCancelAStatementThatExceedsTheMigrationTimeout() throws Exception {
+    ScriptRunner runner = createRunner();
+    runner.setMigrationTimeout(1);
+    assertTimedOut(runner, "Script timed out after 1 seconds.");
+  }
+
+  @Test
+  void shouldNotCancelStatementsAfterTheyComplete() throws Exception {
+    ScriptRunner runner = createRunner();
+    runner.setStatementTimeout(1);
+    runner.setMigrationTimeout(1);
+    runner.runScript(new StringReader("select 1;\nselect 2;\n"));
+    assertFalse(cancelled.await(1500, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void shouldNotReportAnEarlierTimeoutForTheNextStatement() throws Exception {
+    Statement statement = openConnection().createStatement();
+    StatementWatchdog watchdog = new StatementWatchdog();
+    watchdog.startScript(1, 0);
+    watchdog.watch(statement);
+    assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+    assertNotNull(watchdog.toTimeoutException(new SQLException("Statement cancelled")));
+    watchdog.release();
+
+    watchdog.watch(statement);
+    assertNull(watchdog.toTimeoutException(new SQLException("Unrelated failure")));
+    watchdog.release();
+  }
+
+  private void assertTimedOut(ScriptRunner runner, String reason) {
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> runner.runScript(new StringReader("select 1;\nselect slow;\n")));
+    assertTrue(e.getCause() instanceof SQLTimeoutException, String.valueOf(e.getCause()));
+    assertEquals(reason, e.getCause().getMessage());
+    assertEquals(0, cancelled.getCount());
+    assertEquals(List.of("2:select slow"), timedOut);
+  }
+
+  private ScriptRunner createRunner() {
+    ScriptRunner runner = new ScriptRunner(openConnection());
+    runner.setAutoCommit(true);
+    runner.addStatementListener(new StatementListener() {
+      @Override
+      public void statementExecuted(ExecutedStatement statement) {
+        // not needed
+      }
+
+      @Override
+      public void statementTimedOut(ExecutedStatement statement) {
+        timedOut.add(statement.getIndex() + ":" + statement.getSql().trim());
+      }
+    });
+    return runner;
+  }
+
+  /**
+   * A connection whose statements block on "slow" until they are cancelled.
+   */
+  private Connection openConnection() {
+    Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { Statement.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "execute":
+              if (((String) args[0]).contains("slow")) {
+                cancelled.await(10, TimeUnit.SECONDS);
+                throw new SQLException("Statement cancelled");
+              }
+              return false;
+            case "getUpdateCount":
+              return -1;
+            case "cancel":
+              cancelled.countDown();
+              return null;
+            default:
+              return defaultValue(method.getReturnType());
+          }
+        });
+    return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "createStatement":
+              return statement;
+            case "getAutoCommit":
+              return true;
+            default:
+              return defaultValue(method.getReturnType());
+          }
+        });
+  }
+
+  private static Object defaultValue(Class<?> type) {
+    if (type == boolean.class) {
+      return false;
+    }
+    if (type == int.class) {
+      return 0;
+    }
+    return null;
+  }
+}
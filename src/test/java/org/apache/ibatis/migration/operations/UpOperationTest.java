@@ -0,0 +1,132 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+import org.apache.ibatis.migration.utils.DatabaseFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UpOperationTest {
+
+  private DatabaseFixture db;
+  private ByteArrayOutputStream out;
+
+  @BeforeEach
+  void setup() throws Exception {
+    db = new DatabaseFixture("uptest");
+    out = new ByteArrayOutputStream();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    db.close();
+  }
+
+  @Test
+  void shouldResumeAfterTheLastStatementOfTheFailedMigration() throws Exception {
+    // @formatter:off
+    db.writeScript("002_fill_table.sql",
+        "create table t (id int);\n"
+        + "insert into t values (1);\n"
+        + "insert into t select id from flag;\n"
+        + "insert into t values (3);\n"
+        + "-- //@UNDO\n"
+        + "drop table t;\n");
+    db.writeScript("onabort.sql",
+        "create table aborted (id int);\n"
+        + "insert into aborted values (1);\n"
+        + "insert into aborted values (2);\n"
+        + "insert into aborted values (3);\n");
+    // @formatter:on
+    DatabaseOperationOption option = new DatabaseOperationOption();
+    option.setAutoCommit(true);
+    option.setCheckpointTable("CHECKPOINT");
+
+    assertThrows(MigrationException.class, () -> up(option));
+    assertEquals("3", db.runQuery("select count(*) from aborted"));
+    assertEquals("1", db.runQuery("select count(*) from CHANGELOG"));
+    // The statements of onabort.sql must not move the checkpoint of the failed migration.
+    assertEquals("2", db.runQuery("select STATEMENT_INDEX from CHECKPOINT where ID = 2"));
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("Executed 4 statement(s)"));
+
+    db.runSql("create table flag (id int)");
+    db.runSql("insert into flag values (2)");
+    out.reset();
+    up(option);
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("Resuming after statement 2 of the previous run."));
+    assertEquals("3", db.runQuery("select count(*) from t"));
+    assertEquals("6", db.runQuery("select sum(id) from t"));
+    assertEquals("0", db.runQuery("select count(*) from CHECKPOINT"));
+    assertEquals("2", db.runQuery("select count(*) from CHANGELOG"));
+  }
+
+  @Test
+  void shouldWarnAboutSkippedAndMissingScriptsWhenTheLastIdAndCountMatch() throws Exception {
+    db.writeScript("002_first.sql", "create table first (id int);\n");
+    db.writeScript("003_second.sql", "create table second (id int);\n");
+    db.writeScript("005_third.sql", "create table third (id int);\n");
+    DatabaseOperationOption option = new DatabaseOperationOption();
+    up(option);
+    assertEquals("4", db.runQuery("select count(*) from CHANGELOG"));
+
+    // Now the changelog has {1, 2, 3, 5} and the scripts are {1, 2, 4, 5}.
+    db.deleteScript("003_second.sql");
+    db.writeScript("004_fourth.sql", "create table fourth (id int);\n");
+    out.reset();
+    up(option);
+    String output = out.toString(StandardCharsets.UTF_8);
+    assertTrue(output.contains("WARNING: Missing migration script. id='3', description='second'."), output);
+    assertTrue(output.contains("WARNING: Migration script '004_fourth.sql' was not applied to the database."),
+        output);
+    assertEquals("4", db.runQuery("select count(*) from CHANGELOG"));
+  }
+
+  @Test
+  void shouldWarnWhenTheChangelogHasTheSameCountLastIdAndSumOfIds() throws Exception {
+    db.writeScript("002_second.sql", "create table second (id int);\n");
+    db.writeScript("006_sixth.sql", "create table sixth (id int);\n");
+    db.writeScript("007_seventh.sql", "create table seventh (id int);\n");
+    DatabaseOperationOption option = new DatabaseOperationOption();
+    up(option);
+
+    // Now the changelog has {1, 2, 6, 7} and the scripts are {1, 3, 5, 7}.
+    db.deleteScript("002_second.sql");
+    db.deleteScript("006_sixth.sql");
+    db.writeScript("003_third.sql", "create table third (id int);\n");
+    db.writeScript("005_fifth.sql", "create table fifth (id int);\n");
+    out.reset();
+    up(option);
+    String output = out.toString(StandardCharsets.UTF_8);
+    assertTrue(output.contains("WARNING: Missing migration script. id='6', description='sixth'."), output);
+    assertTrue(output.contains("WARNING: Migration script '005_fifth.sql' was not applied to the database."),
+        output);
+  }
+
+  private void up(DatabaseOperationOption option) {
+    new UpOperation().operate(db.getConnectionProvider(), db.createLoader(), option, new PrintStream(out));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.FileMigrationLoader;
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+import org.apache.ibatis.migration.utils.DatabaseFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ValidateOperationTest {
+
+  private DatabaseFixture db;
+  private FileMigrationLoader loader;
+  private DatabaseOperationOption option;
+  private ByteArrayOutputStream out;
+
+  @BeforeEach
+  void setup() throws Exception {
+    db = new DatabaseFixture("validatetest");
+    db.writeScript("002_first.sql", "create table first (id int);\n-- //@UNDO\ndrop table first;\n");
+    db.writeScript("003_second.sql", "create table second (id int);\n-- //@UNDO\ndrop table second;\n");
+    loader = db.createLoader();
+    option = new DatabaseOperationOption();
+    option.setChangelogChecksum(true);
+    out = new ByteArrayOutputStream();
+    new UpOperation().operate(db.getConnectionProvider(), loader, option, new PrintStream(out));
+    out.reset();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    db.close();
+  }
+
+  @Test
+  void shouldPassWhenNoScriptWasModified() {
+    ValidateOperation operation = new ValidateOperation().operate(db.getConnectionProvider(), loader, option,
+        new PrintStream(out));
+    assertEquals(3, operation.getValidatedCount());
+    assertEquals(0, operation.getModifiedCount());
+    assertEquals(0, operation.getUncheckedCount());
+    assertEquals(0, operation.getMissingCount());
+    assertTrue(out.toString(StandardCharsets.UTF_8)
+        .contains("3 validated, 0 modified, 0 without checksum, 0 missing."));
+  }
+
+  @Test
+  void shouldReportScriptsModifiedAfterTheyWereApplied() throws Exception {
+    db.writeScript("003_second.sql",
+        "create table second (id int, name varchar(10));\n-- //@UNDO\ndrop table second;\n");
+    ValidateOperation operation = new ValidateOperation();
+    MigrationException e = assertThrows(MigrationException.class,
+        () -> operation.operate(db.getConnectionProvider(), loader, option, new PrintStream(out)));
+    assertEquals("1 applied migration(s) were modified after they were applied.", e.getMessage());
+    assertEquals(2, operation.getValidatedCount());
+    assertEquals(1, operation.getModifiedCount());
+    String output = out.toString(StandardCharsets.UTF_8);
+    assertTrue(output.contains("MODIFIED:  3 "), output);
+    assertTrue(output.contains("2 validated, 1 modified, 0 without checksum, 0 missing."), output);
+  }
+
+  @Test
+  void shouldCountAppliedScriptsWithoutChecksum() throws Exception {
+    db.runSql("update CHANGELOG set CHECKSUM = null where ID = 2");
+    ValidateOperation operation = new ValidateOperation().operate(db.getConnectionProvider(), loader, option,
+        new PrintStream(out));
+    assertEquals(2, operation.getValidatedCount());
+    assertEquals(1, operation.getUncheckedCount());
+  }
+
+  @Test
+  void shouldCountScriptsAsUncheckedWhenTheLoaderHasNoChecksum() {
+    FileMigrationLoader noChecksumLoader = new FileMigrationLoader(db.getScriptsDir(), "utf-8", new Properties()) {
+      @Override
+      public String getChecksum(Change change) {
+        return null;
+      }
+    };
+    ValidateOperation operation = new ValidateOperation().operate(db.getConnectionProvider(), noChecksumLoader,
+        option, new PrintStream(out));
+    assertEquals(0, operation.getValidatedCount());
+    assertEquals(0, operation.getModifiedCount());
+    assertEquals(3, operation.getUncheckedCount());
+  }
+
+  @Test
+  void shouldFailWhenChecksumsAreNotReadFromTheChangelog() {
+    option.setChangelogChecksum(false);
+    MigrationException e = assertThrows(MigrationException.class,
+        () -> new ValidateOperation().operate(db.getConnectionProvider(), loader, option, new PrintStream(out)));
+    assertTrue(e.getMessage().contains("changelog_checksum=true"), e.getMessage());
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.ibatis.migration.FileMigrationLoader;
+import org.apache.ibatis.migration.options.DatabaseOperationOption;
+import org.apache.ibatis.migration.utils.DatabaseFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VersionOperationTest {
+
+  private DatabaseFixture db;
+  private FileMigrationLoader loader;
+  private DatabaseOperationOption option;
+  private ByteArrayOutputStream out;
+
+  @BeforeEach
+  void setup() throws Exception {
+    db = new DatabaseFixture("versiontest");
+    db.writeScript("002_first.sql", "create table t1 (id int);\n-- //@UNDO\ndrop table t1;\n");
+    db.writeScript("003_second.sql", "create table t2 (id int);\n-- //@UNDO\ndrop table t2;\n");
+    loader = db.createLoader();
+    option = new DatabaseOperationOption();
+    out = new ByteArrayOutputStream();
+    new UpOperation().operate(db.getConnectionProvider(), loader, option, new PrintStream(out));
+    out.reset();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    db.close();
+  }
+
+  @Test
+  void shouldDowngradeAndUpgradeTheChangelogToTheSpecifiedVersion() throws Exception {
+    new VersionOperation(new BigDecimal(1)).operate(db.getConnectionProvider(), loader, option,
+        new PrintStream(out));
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("Downgrading to: 1"));
+    assertEquals("1", db.runQuery("select count(*) from CHANGELOG"));
+    assertEquals("1", db.runQuery("select max(ID) from CHANGELOG"));
+    assertEquals("0", db.runQuery("select count(*) from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'T1'"));
+
+    out.reset();
+    new VersionOperation(new BigDecimal(3)).operate(db.getConnectionProvider(), loader, option,
+        new PrintStream(out));
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("Upgrading to: 3"));
+    assertEquals("3", db.runQuery("select count(*) from CHANGELOG"));
+    assertEquals("6", db.runQuery("select sum(ID) from CHANGELOG"));
+  }
+
+  @Test
+  void shouldReportTheCurrentVersion() throws Exception {
+    new VersionOperation(new BigDecimal(3)).operate(db.getConnectionProvider(), loader, option,
+        new PrintStream(out));
+    assertTrue(out.toString(StandardCharsets.UTF_8).contains("Already at version: 3"));
+    assertEquals("3", db.runQuery("select count(*) from CHANGELOG"));
+  }
+}
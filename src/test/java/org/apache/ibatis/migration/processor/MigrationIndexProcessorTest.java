@@ -0,0 +1,86 @@
+/*
+ *    Copyright 2010-2026 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.ibatis.migration.Change;
+import org.apache.ibatis.migration.JavaMigrationLoader;
+import org.apache.ibatis.migration.utils.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class MigrationIndexProcessorTest {
+
+  @Test
+  void shouldIndexScriptsAndLoadThemWithoutScanning() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      Path src = dir.toPath().resolve("src/sample");
+      Files.createDirectories(src);
+      Path out = Files.createDirectories(dir.toPath().resolve("out"));
+      // @formatter:off
+      Path migration = Files.writeString(src.resolve("V001_Create.java"), "package sample;\n"
+          + "public class V001_Create implements org.apache.ibatis.migration.MigrationScript {\n"
+          + "  public java.math.BigDecimal getId() { return java.math.BigDecimal.ONE; }\n"
+          + "  public String getDescription() { return \"Create\"; }\n"
+          + "  public String getUpScript() { return \"create table t (id int);\"; }\n"
+          + "  public String getDownScript() { return \"drop table t;\"; }\n"
+          + "  public static class Bootstrap implements org.apache.ibatis.migration.BootstrapScript {\n"
+          + "    public String getScript() { return \"create schema s;\"; }\n"
+          + "  }\n"
+          + "}\n");
+      Path other = Files.writeString(src.resolve("Other.java"), "package sample;\n"
+          + "public class Other {\n"
+          + "}\n");
+      // @formatter:on
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      int result = compiler.run(null, null, null, "-classpath", System.getProperty("java.class.path"), "-processor",
+          MigrationIndexProcessor.class.getName(), "-processorpath", System.getProperty("java.class.path"), "-d",
+          out.toString(), migration.toString(), other.toString());
+      assertEquals(0, result);
+
+      List<String> index = Files.readAllLines(out.resolve(JavaMigrationLoader.INDEX_RESOURCE),
+          StandardCharsets.UTF_8);
+      assertEquals(List.of("sample.V001_Create", "sample.V001_Create$Bootstrap"), index);
+
+      try (URLClassLoader classLoader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+          getClass().getClassLoader())) {
+        JavaMigrationLoader loader = new JavaMigrationLoader(classLoader, "sample");
+        List<Change> migrations = loader.getMigrations();
+        assertEquals(1, migrations.size());
+        assertEquals("sample.V001_Create", migrations.get(0).getFilename());
+        assertNotNull(loader.getScriptReader(migrations.get(0), false));
+        assertNotNull(loader.getBootstrapReader());
+        assertTrue(new JavaMigrationLoader(classLoader, "other").getMigrations().isEmpty());
+      }
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+}
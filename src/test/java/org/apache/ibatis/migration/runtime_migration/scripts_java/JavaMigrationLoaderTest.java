@@ -16,15 +16,32 @@
 package org.apache.ibatis.migration.runtime_migration.scripts_java;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 
 import org.apache.ibatis.migration.Change;
 import org.apache.ibatis.migration.JavaMigrationLoader;
+import org.apache.ibatis.migration.MigrationException;
+import org.apache.ibatis.migration.processor.MigrationIndexProcessor;
+import org.apache.ibatis.migration.utils.TestUtil;
 import org.junit.jupiter.api.Test;
 
 class JavaMigrationLoaderTest {
@@ -63,6 +80,118 @@ class JavaMigrationLoaderTest {
     }
   }
 
+  @Test
+  void shouldScanPackagesOutsideTheIndexedClasspathRoots() throws Exception {
+    File root = TestUtil.getTempDir();
+    File index = new File(root, JavaMigrationLoader.INDEX_RESOURCE);
+    assertTrue(index.getParentFile().mkdirs());
+    Files.write(index.toPath(), List.of(V002_CreateFirstTable.class.getName()));
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] { root.toURI().toURL() },
+        getClass().getClassLoader())) {
+      // The test classes are not in the indexed root, so they are still found by scanning.
+      JavaMigrationLoader loader = new JavaMigrationLoader(classLoader,
+          "org.apache.ibatis.migration.runtime_migration.scripts_java");
+      assertEquals(3, loader.getMigrations().size());
+    }
+    assertTrue(TestUtil.deleteDirectory(root), "delete temp dir");
+  }
+
+  @Test
+  void shouldCompareTheIndexedRootsWithTheRootsThatAreScanned() throws Exception {
+    File root = TestUtil.getTempDir();
+    File index = new File(root, JavaMigrationLoader.INDEX_RESOURCE);
+    assertTrue(index.getParentFile().mkdirs());
+    Files.write(index.toPath(), List.of(V002_CreateFirstTable.class.getName()));
+    String path = "org/apache/ibatis/migration/runtime_migration/scripts_java";
+    try (URLClassLoader indexLoader = new URLClassLoader(new URL[] { root.toURI().toURL() },
+        getClass().getClassLoader())) {
+      // Like a jar without directory entries, this loader does not return the package as a resource.
+      ClassLoader classLoader = new ClassLoader(indexLoader) {
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+          return name.startsWith(path) ? Collections.emptyEnumeration() : super.getResources(name);
+        }
+      };
+      JavaMigrationLoader loader = new JavaMigrationLoader(classLoader,
+          "org.apache.ibatis.migration.runtime_migration.scripts_java");
+      assertEquals(3, loader.getMigrations().size());
+    }
+    assertTrue(TestUtil.deleteDirectory(root), "delete temp dir");
+  }
+
+  @Test
+  void shouldLookUpScriptClassesOnlyOnce() throws Exception {
+    AtomicInteger indexLookups = new AtomicInteger();
+    ClassLoader classLoader = new ClassLoader(getClass().getClassLoader()) {
+      @Override
+      public Enumeration<URL> getResources(String name) throws IOException {
+        if (JavaMigrationLoader.INDEX_RESOURCE.equals(name)) {
+          indexLookups.incrementAndGet();
+        }
+        return super.getResources(name);
+      }
+    };
+    JavaMigrationLoader loader = new JavaMigrationLoader(classLoader,
+        "org.apache.ibatis.migration.runtime_migration.scripts_java");
+    List<Change> migrations = loader.getMigrations();
+    assertEquals(3, migrations.size());
+    assertEquals(3, loader.getMigrations().size());
+    for (Change change : migrations) {
+      loader.getScriptReader(change, false).close();
+    }
+    loader.getBootstrapReader().close();
+    assertNull(loader.getOnAbortReader());
+    assertEquals(1, indexLookups.get());
+  }
+
+  @Test
+  void shouldReuseScriptInstancesAndRejectDuplicateSoleScripts() throws Exception {
+    File dir = TestUtil.getTempDir();
+    try {
+      Path src = Files.createDirectories(dir.toPath().resolve("src/counted"));
+      Path out = Files.createDirectories(dir.toPath().resolve("out"));
+      // @formatter:off
+      Path migration = Files.writeString(src.resolve("V001_Counted.java"), "package counted;\n"
+          + "public class V001_Counted implements org.apache.ibatis.migration.MigrationScript {\n"
+          + "  public static int instances;\n"
+          + "  public V001_Counted() { instances++; }\n"
+          + "  public java.math.BigDecimal getId() { return java.math.BigDecimal.ONE; }\n"
+          + "  public String getDescription() { return \"Counted\"; }\n"
+          + "  public String getUpScript() { return \"create table t (id int);\"; }\n"
+          + "  public String getDownScript() { return \"drop table t;\"; }\n"
+          + "  public static class FirstOnAbort implements org.apache.ibatis.migration.OnAbortScript {\n"
+          + "    public String getScript() { return \"select 1;\"; }\n"
+          + "  }\n"
+          + "  public static class SecondOnAbort implements org.apache.ibatis.migration.OnAbortScript {\n"
+          + "    public String getScript() { return \"select 2;\"; }\n"
+          + "  }\n"
+          + "}\n");
+      // @formatter:on
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      String classpath = System.getProperty("java.class.path");
+      assertEquals(0, compiler.run(null, null, null, "-classpath", classpath, "-processor",
+          MigrationIndexProcessor.class.getName(), "-processorpath", classpath, "-d", out.toString(),
+          migration.toString()));
+
+      try (URLClassLoader classLoader = new URLClassLoader(new URL[] { out.toUri().toURL() },
+          getClass().getClassLoader())) {
+        JavaMigrationLoader loader = new JavaMigrationLoader(classLoader, "counted");
+        Change change = loader.getMigrations().get(0);
+        loader.getScriptReader(change, false).close();
+        loader.getScriptReader(change, true).close();
+        loader.getMigrations();
+        assertEquals(1, classLoader.loadClass("counted.V001_Counted").getField("instances").getInt(null));
+
+        MigrationException e = assertThrows(MigrationException.class, loader::getOnAbortReader);
+        assertEquals("There can be only one implementation of org.apache.ibatis.migration.OnAbortScript",
+            e.getMessage());
+        assertNull(loader.getBootstrapReader());
+      }
+    } finally {
+      TestUtil.deleteDirectory(dir);
+    }
+  }
+
   protected JavaMigrationLoader createMigrationLoader() {
     return new JavaMigrationLoader("org.apache.ibatis.migration.runtime_migration.scripts_java");
   }
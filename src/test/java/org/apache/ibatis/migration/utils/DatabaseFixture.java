@@ -0,0 +1,101 @@
+/*
+ *    Copyright 2010-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.migration.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.apache.ibatis.migration.ConnectionProvider;
+import org.apache.ibatis.migration.FileMigrationLoader;
+import org.apache.ibatis.migration.JdbcConnectionProvider;
+
+/**
+ * An in-memory HSQLDB database and a temporary scripts directory whose first script creates the CHANGELOG (with a
+ * CHECKSUM column) and CHECKPOINT tables.
+ */
+public class DatabaseFixture implements AutoCloseable {
+
+  // @formatter:off
+  private static final String CREATE_CHANGELOG = "create table CHANGELOG (ID NUMERIC(20,0) NOT NULL,"
+      + " APPLIED_AT VARCHAR(25) NOT NULL, DESCRIPTION VARCHAR(255) NOT NULL, CHECKSUM VARCHAR(64));\n"
+      + "create table CHECKPOINT (ID NUMERIC(20,0) NOT NULL, CHECKSUM VARCHAR(64) NOT NULL,"
+      + " STATEMENT_INDEX INTEGER NOT NULL);\n"
+      + "-- //@UNDO\n"
+      + "drop table CHECKPOINT;\n"
+      + "drop table CHANGELOG;\n";
+  // @formatter:on
+
+  private final ConnectionProvider connectionProvider;
+  private final File scriptsDir;
+
+  public DatabaseFixture(String name) throws IOException {
+    connectionProvider = new JdbcConnectionProvider("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:" + name, "sa", "");
+    scriptsDir = TestUtil.getTempDir();
+    writeScript("001_create_changelog.sql", CREATE_CHANGELOG);
+  }
+
+  public ConnectionProvider getConnectionProvider() {
+    return connectionProvider;
+  }
+
+  public File getScriptsDir() {
+    return scriptsDir;
+  }
+
+  public FileMigrationLoader createLoader() {
+    return new FileMigrationLoader(scriptsDir, "utf-8", new Properties());
+  }
+
+  public void writeScript(String filename, String content) throws IOException {
+    Files.write(new File(scriptsDir, filename).toPath(), content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public void deleteScript(String filename) throws IOException {
+    Files.delete(new File(scriptsDir, filename).toPath());
+  }
+
+  public void runSql(String sql) throws SQLException {
+    try (Connection connection = connectionProvider.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  public String runQuery(String query) throws SQLException {
+    try (Connection connection = connectionProvider.getConnection();
+        Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(query)) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+
+  /**
+   * Shuts the database down and deletes the scripts directory.
+   */
+  @Override
+  public void close() throws Exception {
+    runSql("shutdown");
+    if (!TestUtil.deleteDirectory(scriptsDir)) {
+      throw new IOException("Could not delete " + scriptsDir);
+    }
+  }
+}